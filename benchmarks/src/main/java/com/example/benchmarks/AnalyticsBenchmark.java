@@ -0,0 +1,58 @@
+package com.example.benchmarks;
+
+import com.example.dto.BorrowerActivityDTO;
+import com.example.dto.TopBookDTO;
+import com.example.repository.BookRepository;
+import com.example.repository.BorrowRecordRepository;
+import com.example.service.BorrowService;
+import com.example.service.BorrowerActivityService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Service calls measure what the endpoints serve (mostly in-memory views); the *Query benchmarks measure
+// the SQL those views replace or are rebuilt from
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    @Benchmark
+    public List<TopBookDTO> topBorrowedBooksAllTime(LibraryState library) {
+        return library.bean(BorrowService.class).getTopBorrowedBooks(10, null);
+    }
+
+    @Benchmark
+    public List<TopBookDTO> topBorrowedBooksLast30Days(LibraryState library) {
+        return library.bean(BorrowService.class).getTopBorrowedBooks(10, 30);
+    }
+
+    @Benchmark
+    public List<Object[]> topBorrowedBooksQuery(LibraryState library) {
+        return library.bean(BorrowRecordRepository.class).findTopBorrowedBooks(PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public Page<BorrowerActivityDTO> borrowerActivity(LibraryState library) {
+        return library.bean(BorrowerActivityService.class)
+                .getBorrowerActivity(0, 20, "totalFines", Sort.Direction.DESC);
+    }
+
+    @Benchmark
+    public List<Object[]> availabilitySummaryQuery(LibraryState library) {
+        return library.bean(BookRepository.class).getAvailabilitySummary();
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.example.benchmarks;
+
+import com.example.dto.BookDTO;
+import com.example.dto.BorrowRecordDTO;
+import com.example.dto.BorrowRequestDTO;
+import com.example.dto.ReturnRequestDTO;
+import com.example.service.BookService;
+import com.example.service.BorrowService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Database load of the cached read paths with the second-level and query cache on and off. Besides latency,
+// each operation reports the JDBC statements it prepared (statements / calls is the per-call DB load).
+// Single-threaded, because Hibernate statistics are global to the session factory.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class CacheLoadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CacheState extends LibraryState {
+
+        @Param({"true", "false"})
+        public boolean secondLevelCache;
+
+        @Override
+        protected List<String> overrides() {
+            return List.of(
+                    "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                    "--spring.jpa.properties.hibernate.cache.use_query_cache=" + secondLevelCache);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DatabaseLoad {
+
+        public long statements;
+        public long calls;
+
+        private Statistics statistics;
+
+        @Setup(Level.Trial)
+        public void setUp(CacheState library) {
+            statistics = library.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            statements = 0;
+            calls = 0;
+        }
+
+        long mark() {
+            return statistics.getPrepareStatementCount();
+        }
+
+        void record(long mark) {
+            statements += statistics.getPrepareStatementCount() - mark;
+            calls++;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Patron {
+
+        BookService bookService;
+        BorrowService borrowService;
+        UUID borrowerId;
+        List<UUID> benchBooks;
+        List<UUID> sampleBooks;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(CacheState library) {
+            bookService = library.bean(BookService.class);
+            borrowService = library.bean(BorrowService.class);
+            borrowerId = library.claimBorrower();
+            benchBooks = library.seeded.benchBookIds();
+            sampleBooks = library.seeded.sampleBookIds();
+            random = new SplittableRandom(borrowerId.getMostSignificantBits());
+        }
+
+        UUID pick(List<UUID> books) {
+            return books.get(random.nextInt(books.size()));
+        }
+    }
+
+    // Book and Borrower lookups by id on the write path
+    @Benchmark
+    public BorrowRecordDTO borrowAndReturn(Patron patron, DatabaseLoad load) {
+        long mark = load.mark();
+        UUID bookId = patron.pick(patron.benchBooks);
+        BorrowRequestDTO borrow = new BorrowRequestDTO();
+        borrow.setBookId(bookId);
+        borrow.setBorrowerId(patron.borrowerId);
+        patron.borrowService.borrowBook(borrow);
+
+        ReturnRequestDTO request = new ReturnRequestDTO();
+        request.setBookId(bookId);
+        request.setBorrowerId(patron.borrowerId);
+        BorrowRecordDTO returned = patron.borrowService.returnBook(request);
+        load.record(mark);
+        return returned;
+    }
+
+    // Cacheable finder query
+    @Benchmark
+    public Page<BookDTO> getBooks(Patron patron, DatabaseLoad load) {
+        long mark = load.mark();
+        Page<BookDTO> page = patron.bookService.getBooks("Category " + patron.random.nextInt(DataSeeder.CATEGORIES),
+                null, PageRequest.of(patron.random.nextInt(10), 10, Sort.by("title")));
+        load.record(mark);
+        return page;
+    }
+
+    // Book by id plus its neighbour list
+    @Benchmark
+    public List<BookDTO> getSimilarBooks(Patron patron, DatabaseLoad load) {
+        long mark = load.mark();
+        List<BookDTO> similar = patron.bookService.getSimilarBooks(patron.pick(patron.sampleBooks));
+        load.record(mark);
+        return similar;
+    }
+
+}
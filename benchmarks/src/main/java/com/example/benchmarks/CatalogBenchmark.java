@@ -0,0 +1,76 @@
+package com.example.benchmarks;
+
+import com.example.dto.BookDTO;
+import com.example.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CatalogBenchmark {
+
+    // Only getBooks uses this state, so only getBooks is expanded over the filter combinations
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        @Param({"none", "category", "available", "category-available"})
+        public String filter;
+
+        String category;
+        Boolean available;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            category = filter.startsWith("category") ? "Category 1" : null;
+            available = filter.endsWith("available") ? Boolean.TRUE : null;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+
+        BookService bookService;
+        List<UUID> sampleBooks;
+        SplittableRandom random = new SplittableRandom(7);
+
+        @Setup(Level.Trial)
+        public void setUp(LibraryState library) {
+            bookService = library.bean(BookService.class);
+            sampleBooks = library.seeded.sampleBookIds();
+        }
+    }
+
+    @Benchmark
+    public Page<BookDTO> getBooks(LibraryState library, Filter filter, Reader reader) {
+        PageRequest page = PageRequest.of(reader.random.nextInt(10), 10, Sort.by("title"));
+        return reader.bookService.getBooks(filter.category, filter.available, page);
+    }
+
+    @Benchmark
+    public List<BookDTO> getSimilarBooks(LibraryState library, Reader reader) {
+        UUID bookId = reader.sampleBooks.get(reader.random.nextInt(reader.sampleBooks.size()));
+        return reader.bookService.getSimilarBooks(bookId);
+    }
+
+}
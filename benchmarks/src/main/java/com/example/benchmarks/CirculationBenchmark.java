@@ -0,0 +1,99 @@
+package com.example.benchmarks;
+
+import com.example.dto.BorrowRecordDTO;
+import com.example.dto.BorrowRequestDTO;
+import com.example.dto.ReturnRequestDTO;
+import com.example.service.BorrowService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CirculationBenchmark {
+
+    @State(Scope.Thread)
+    public static class Patron {
+
+        BorrowService borrowService;
+        UUID borrowerId;
+        // borrowBook leaves loans open, so it must not share books with borrowAndReturn
+        List<UUID> borrowOnlyBooks;
+        List<UUID> roundTripBooks;
+        // Every thread of contendedBorrowAndReturn hits this one row
+        UUID contendedBook;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(LibraryState library) {
+            borrowService = library.bean(BorrowService.class);
+            borrowerId = library.claimBorrower();
+            List<UUID> benchBooks = library.seeded.benchBookIds();
+            borrowOnlyBooks = benchBooks.subList(0, benchBooks.size() / 2);
+            roundTripBooks = benchBooks.subList(benchBooks.size() / 2, benchBooks.size());
+            contendedBook = roundTripBooks.get(0);
+            random = new SplittableRandom(borrowerId.getMostSignificantBits());
+        }
+
+        UUID pick(List<UUID> books) {
+            return books.get(random.nextInt(books.size()));
+        }
+    }
+
+    @Benchmark
+    public BorrowRecordDTO borrowBook(LibraryState library, Patron patron) {
+        return patron.borrowService.borrowBook(borrowRequest(patron.pick(patron.borrowOnlyBooks), patron.borrowerId));
+    }
+
+    // returnBook needs an open loan, so it is measured together with the borrow that creates it
+    @Benchmark
+    public BorrowRecordDTO borrowAndReturn(LibraryState library, Patron patron) {
+        UUID bookId = patron.pick(patron.roundTripBooks);
+        patron.borrowService.borrowBook(borrowRequest(bookId, patron.borrowerId));
+
+        ReturnRequestDTO request = new ReturnRequestDTO();
+        request.setBookId(bookId);
+        request.setBorrowerId(patron.borrowerId);
+        return patron.borrowService.returnBook(request);
+    }
+
+    // Throughput of the copy reservation under contention: 64 patrons borrowing and returning the same title
+    // (moved here from BorrowServiceConcurrencyTest, which only checks correctness)
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(64)
+    public BorrowRecordDTO contendedBorrowAndReturn(LibraryState library, Patron patron) {
+        patron.borrowService.borrowBook(borrowRequest(patron.contendedBook, patron.borrowerId));
+
+        ReturnRequestDTO request = new ReturnRequestDTO();
+        request.setBookId(patron.contendedBook);
+        request.setBorrowerId(patron.borrowerId);
+        return patron.borrowService.returnBook(request);
+    }
+
+    private static BorrowRequestDTO borrowRequest(UUID bookId, UUID borrowerId) {
+        BorrowRequestDTO request = new BorrowRequestDTO();
+        request.setBookId(bookId);
+        request.setBorrowerId(borrowerId);
+        return request;
+    }
+
+}
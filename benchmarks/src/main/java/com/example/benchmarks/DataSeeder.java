@@ -0,0 +1,129 @@
+package com.example.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+// Synthetic catalog: scale borrow records over scale/5 books and scale/10 borrowers, plus dedicated
+// benchmark books and borrowers that can never run out of copies or loan slots
+class DataSeeder {
+
+    static final int CATEGORIES = 20;
+    static final int BENCH_BORROWERS = 256;
+    static final int BENCH_BOOKS = 64;
+    private static final int SAMPLE_BOOKS = 256;
+    private static final int BATCH_SIZE = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    record Seeded(boolean freshlySeeded, List<UUID> sampleBookIds, List<UUID> benchBookIds,
+                  List<UUID> benchBorrowerIds) {
+    }
+
+    DataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    Seeded seed(int scale) {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM borrow_records", Long.class);
+        boolean fresh = existing == null || existing < scale;
+        if (fresh) {
+            clear();
+            insertData(scale);
+        }
+        return new Seeded(fresh,
+                jdbcTemplate.queryForList("SELECT id FROM books WHERE title NOT LIKE '%Bench %' ORDER BY id LIMIT ?",
+                        UUID.class, SAMPLE_BOOKS),
+                jdbcTemplate.queryForList("SELECT id FROM books WHERE title LIKE 'Bench %' ORDER BY id", UUID.class),
+                jdbcTemplate.queryForList("SELECT id FROM borrowers WHERE email LIKE 'bench-%' ORDER BY id",
+                        UUID.class));
+    }
+
+    private void clear() {
+        for (String table : List.of("book_similarities", "borrower_activity", "borrow_records", "books", "borrowers")) {
+            jdbcTemplate.execute("DELETE FROM " + table);
+        }
+    }
+
+    private void insertData(int scale) {
+        int bookCount = Math.max(100, scale / 5);
+        int borrowerCount = Math.max(50, scale / 10);
+        int authorCount = Math.max(10, bookCount / 10);
+        LocalDate today = LocalDate.now();
+
+        List<UUID> bookIds = new ArrayList<>(bookCount);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < bookCount; i++) {
+            UUID id = UUID.randomUUID();
+            bookIds.add(id);
+            int copies = 1 + random.nextInt(5);
+            rows.add(new Object[]{id, "Title " + i, "Author " + random.nextInt(authorCount),
+                    "Category " + random.nextInt(CATEGORIES), true, copies, copies, false});
+            rows = flush(rows, "INSERT INTO books (id, title, author, category, is_available, total_copies, " +
+                    "available_copies, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+        for (int i = 0; i < BENCH_BOOKS; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), "Bench " + i, "Bench Author", "Category " + (i % CATEGORIES),
+                    true, 1_000_000_000, 1_000_000_000, false});
+        }
+        flushAll(rows, "INSERT INTO books (id, title, author, category, is_available, total_copies, " +
+                "available_copies, deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+
+        List<UUID> borrowerIds = new ArrayList<>(borrowerCount);
+        rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < borrowerCount; i++) {
+            UUID id = UUID.randomUUID();
+            borrowerIds.add(id);
+            rows.add(new Object[]{id, "Borrower " + i, "borrower-" + i + "@example.com", "PREMIUM", 5, 0});
+            rows = flush(rows, "INSERT INTO borrowers (id, name, email, membership_type, max_borrow_limit, " +
+                    "active_loan_count) VALUES (?, ?, ?, ?, ?, ?)");
+        }
+        for (int i = 0; i < BENCH_BORROWERS; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), "Bench Borrower " + i, "bench-" + i + "@example.com",
+                    "PREMIUM", Integer.MAX_VALUE, 0});
+        }
+        flushAll(rows, "INSERT INTO borrowers (id, name, email, membership_type, max_borrow_limit, " +
+                "active_loan_count) VALUES (?, ?, ?, ?, ?, ?)");
+
+        // Mostly returned history over the last two years; about 5% still out, some of those overdue
+        String insertRecord = "INSERT INTO borrow_records (id, book_id, borrower_id, borrow_date, due_date, " +
+                "return_date, fine_amount, active, overdue_flagged) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < scale; i++) {
+            LocalDate borrowDate = today.minusDays(random.nextInt(730));
+            LocalDate dueDate = borrowDate.plusDays(14);
+            boolean active = random.nextInt(20) == 0;
+            LocalDate returnDate = active ? null : borrowDate.plusDays(random.nextInt(21));
+            rows.add(new Object[]{UUID.randomUUID(), bookIds.get(random.nextInt(bookCount)),
+                    borrowerIds.get(random.nextInt(borrowerCount)), Date.valueOf(borrowDate), Date.valueOf(dueDate),
+                    returnDate == null ? null : Date.valueOf(returnDate), 0, active, false});
+            rows = flush(rows, insertRecord);
+        }
+        flushAll(rows, insertRecord);
+
+        jdbcTemplate.update("UPDATE books b SET available_copies = GREATEST(0, total_copies - " +
+                "(SELECT COUNT(*) FROM borrow_records r WHERE r.book_id = b.id AND r.active = TRUE))");
+        jdbcTemplate.update("UPDATE books SET is_available = (available_copies > 0)");
+    }
+
+    private List<Object[]> flush(List<Object[]> rows, String sql) {
+        if (rows.size() < BATCH_SIZE) {
+            return rows;
+        }
+        flushAll(rows, sql);
+        return new ArrayList<>(BATCH_SIZE);
+    }
+
+    private void flushAll(List<Object[]> rows, String sql) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+}
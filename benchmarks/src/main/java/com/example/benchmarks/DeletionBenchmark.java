@@ -0,0 +1,123 @@
+package com.example.benchmarks;
+
+import com.example.cache.AvailabilityCounters;
+import com.example.dto.BookDTO;
+import com.example.search.CatalogSearchIndex;
+import com.example.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Book deletion checks for open loans with an index-only existence query, so its latency should stay flat
+// as the number of active loans grows. Compare across scales (about 5% of the records are open loans):
+// mvn package exec:exec -Djmh.include=Deletion -Djmh.scale=10000,100000,1000000
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DeletionBenchmark {
+
+    private static final String TITLE_PREFIX = "Delete Bench ";
+
+    // A fresh book per invocation; the setup is far cheaper than the delete transaction it feeds
+    @State(Scope.Thread)
+    public static class Deletable {
+
+        BookService bookService;
+        UUID bookId;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(LibraryState library, Leftovers leftovers) {
+            bookService = library.bean(BookService.class);
+        }
+
+        @Setup(Level.Invocation)
+        public void addBook() {
+            BookDTO book = new BookDTO();
+            book.setTitle(TITLE_PREFIX + Thread.currentThread().threadId() + "-" + next++);
+            book.setAuthor("Delete Bench Author");
+            book.setCategory("Category 0");
+            book.setTotalCopies(1);
+            bookId = bookService.addOrUpdateBook(book).getId();
+        }
+    }
+
+    // One book with an open loan, so every delete is refused after the existence check
+    @State(Scope.Benchmark)
+    public static class OnLoan {
+
+        BookService bookService;
+        UUID bookId;
+
+        @Setup(Level.Trial)
+        public void setUp(LibraryState library, Leftovers leftovers) {
+            bookService = library.bean(BookService.class);
+
+            BookDTO book = new BookDTO();
+            book.setTitle(TITLE_PREFIX + "on loan");
+            book.setAuthor("Delete Bench Author");
+            book.setCategory("Category 0");
+            book.setTotalCopies(1);
+            bookId = bookService.addOrUpdateBook(book).getId();
+
+            LocalDate today = LocalDate.now();
+            library.bean(JdbcTemplate.class).update("INSERT INTO borrow_records (id, book_id, borrower_id, " +
+                            "borrow_date, due_date, return_date, fine_amount, active, overdue_flagged) " +
+                            "VALUES (?, ?, ?, ?, ?, NULL, 0, TRUE, FALSE)",
+                    UUID.randomUUID(), bookId, library.seeded.benchBorrowerIds().get(0),
+                    Date.valueOf(today), Date.valueOf(today.plusDays(14)));
+        }
+    }
+
+    // Drops the books an earlier run created, so every run starts from the seeded data. Done at setup rather
+    // than teardown because the application context may already be closed when trial teardowns run.
+    @State(Scope.Benchmark)
+    public static class Leftovers {
+
+        @Setup(Level.Trial)
+        public void clear(LibraryState library) {
+            JdbcTemplate jdbcTemplate = library.bean(JdbcTemplate.class);
+            String created = "SELECT id FROM books WHERE title LIKE '" + TITLE_PREFIX + "%'";
+            jdbcTemplate.update("DELETE FROM borrow_records WHERE book_id IN (" + created + ")");
+            jdbcTemplate.update("DELETE FROM book_similarities WHERE book_id IN (" + created + ") " +
+                    "OR similar_book_id IN (" + created + ")");
+            if (jdbcTemplate.update("DELETE FROM books WHERE title LIKE '" + TITLE_PREFIX + "%'") > 0) {
+                library.bean(AvailabilityCounters.class).rebuild();
+                library.bean(CatalogSearchIndex.class).rebuild();
+            }
+        }
+    }
+
+    @Benchmark
+    public UUID deleteBook(Deletable deletable) {
+        deletable.bookService.deleteBook(deletable.bookId);
+        return deletable.bookId;
+    }
+
+    @Benchmark
+    public boolean deleteBookOnLoan(OnLoan onLoan) {
+        try {
+            onLoan.bookService.deleteBook(onLoan.bookId);
+            return true;
+        } catch (IllegalStateException ex) {
+            return false;
+        }
+    }
+
+}
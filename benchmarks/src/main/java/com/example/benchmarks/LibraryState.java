@@ -0,0 +1,101 @@
+package com.example.benchmarks;
+
+import com.example.LibraryBookManagementSystemApplication;
+import com.example.cache.AvailabilityCounters;
+import com.example.cache.BorrowTrendTracker;
+import com.example.search.AutocompleteIndex;
+import com.example.search.CatalogSearchIndex;
+import com.example.service.BookSimilarityService;
+import com.example.service.BorrowerActivityService;
+import com.example.service.BorrowerService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One application context per fork, backed by an H2 file database that is seeded once per scale and reused
+@State(Scope.Benchmark)
+public class LibraryState {
+
+    // Number of borrow records; books and borrowers are derived from it (see DataSeeder)
+    @Param({"10000"})
+    public int scale;
+
+    ConfigurableApplicationContext context;
+    DataSeeder.Seeded seeded;
+
+    private final AtomicInteger nextThread = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void start() {
+        List<String> arguments = new ArrayList<>(arguments(scale));
+        arguments.add("--spring.main.web-application-type=none");
+        arguments.addAll(overrides());
+        context = new SpringApplicationBuilder(LibraryBookManagementSystemApplication.class)
+                .run(arguments.toArray(String[]::new));
+        seeded = seed(context, scale);
+    }
+
+    // Passed as command-line arguments: builder default properties rank below application.properties
+    static List<String> arguments(int scale) {
+        return List.of(
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:file:./target/bench-db/library-" + scale + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.sql.init.mode=never",
+                "--spring.h2.console.enabled=false",
+                // Would race the seeder; neighbours of the sampled books are computed below
+                "--library.similarity.recompute-on-startup=false",
+                "--logging.level.root=WARN");
+    }
+
+    static DataSeeder.Seeded seed(ConfigurableApplicationContext context, int scale) {
+        DataSeeder.Seeded seeded = new DataSeeder(context.getBean(JdbcTemplate.class)).seed(scale);
+        if (seeded.freshlySeeded()) {
+            // Startup warmups ran against the empty schema, so build the in-memory views again
+            context.getBean(AvailabilityCounters.class).rebuild();
+            context.getBean(CatalogSearchIndex.class).rebuild();
+            context.getBean(AutocompleteIndex.class).rebuild();
+            context.getBean(BorrowTrendTracker.class).warmUp();
+            context.getBean(BorrowerActivityService.class).rebuild();
+            context.getBean(BorrowerService.class).reconcileActiveLoanCounts();
+
+            // Precompute neighbours only for the sampled books; a full recompute at 10M rows takes far too long
+            BookSimilarityService similarity = context.getBean(BookSimilarityService.class);
+            seeded.sampleBookIds().forEach(similarity::markStale);
+            similarity.refreshStale();
+        }
+        return seeded;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Extra --property=value arguments for benchmarks that compare configurations
+    protected List<String> overrides() {
+        return List.of();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // Each benchmark thread gets its own borrower so borrow/return pairs never contend on one loan counter
+    UUID claimBorrower() {
+        List<UUID> borrowers = seeded.benchBorrowerIds();
+        return borrowers.get(nextThread.getAndIncrement() % borrowers.size());
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.example.benchmarks;
+
+import com.example.dto.BookDTO;
+import com.example.dto.BorrowRecordDTO;
+import com.example.dto.BorrowerDTO;
+import com.example.entity.Book;
+import com.example.entity.BorrowRecord;
+import com.example.entity.Borrower;
+import com.example.entity.MembershipType;
+import com.example.mapper.BookMapper;
+import com.example.mapper.BorrowRecordMapper;
+import com.example.mapper.BorrowerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Entity-to-DTO mapping in isolation; no application context or database needed
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private final BookMapper bookMapper = new BookMapper();
+    private final BorrowerMapper borrowerMapper = new BorrowerMapper();
+    private final BorrowRecordMapper borrowRecordMapper = new BorrowRecordMapper();
+
+    private Book book;
+    private Borrower borrower;
+    private BorrowRecord record;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        book = new Book();
+        book.setId(UUID.randomUUID());
+        book.setTitle("The Left Hand of Darkness");
+        book.setAuthor("Ursula K. Le Guin");
+        book.setCategory("Fiction");
+        book.setTotalCopies(3);
+        book.setAvailableCopies(2);
+
+        borrower = new Borrower();
+        borrower.setId(UUID.randomUUID());
+        borrower.setName("Benchmark Borrower");
+        borrower.setEmail("bench@example.com");
+        borrower.setMembershipType(MembershipType.PREMIUM);
+        borrower.setMaxBorrowLimit(MembershipType.PREMIUM.getMaxBorrowLimit());
+
+        record = new BorrowRecord();
+        record.setId(UUID.randomUUID());
+        record.setBook(book);
+        record.setBorrower(borrower);
+        record.setBorrowDate(LocalDate.now().minusDays(20));
+        record.setDueDate(LocalDate.now().minusDays(6));
+        record.setFineAmount(BigDecimal.ZERO);
+        record.setActive(true);
+    }
+
+    @Benchmark
+    public BookDTO mapBook() {
+        return bookMapper.toDTO(book);
+    }
+
+    @Benchmark
+    public BorrowerDTO mapBorrower() {
+        return borrowerMapper.toDTO(borrower);
+    }
+
+    @Benchmark
+    public BorrowRecordDTO mapBorrowRecord() {
+        return borrowRecordMapper.toDTO(record);
+    }
+
+}
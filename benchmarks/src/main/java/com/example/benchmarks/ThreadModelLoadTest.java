@@ -0,0 +1,210 @@
+package com.example.benchmarks;
+
+import com.example.LibraryBookManagementSystemApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Closed-loop HTTP load against the borrow and return endpoints, once on Tomcat's platform worker pool and
+// once with the virtual-threads profile. Every client alternates borrow and return on its own
+// (borrower, book) pair, so clients never contend on the same loan. Not a JMH benchmark: JMH measures
+// in-process calls, this measures the whole request path including Tomcat's thread model.
+//
+// mvn -f benchmarks/pom.xml package exec:exec@load-test -Dload.clients=1000,5000,10000 -Dload.seconds=30
+// Needs a file descriptor limit above the client count (ulimit -n).
+public final class ThreadModelLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final int WARMUP_CLIENTS = 100;
+
+    private final int scale;
+    private final int[] clientCounts;
+    private final Duration duration;
+
+    private ThreadModelLoadTest(int scale, int[] clientCounts, Duration duration) {
+        this.scale = scale;
+        this.clientCounts = clientCounts;
+        this.duration = duration;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int scale = Integer.parseInt(args[0]);
+        int[] clientCounts = Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray();
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        new ThreadModelLoadTest(scale, clientCounts, duration).run();
+    }
+
+    private void run() throws Exception {
+        List<String> rows = new ArrayList<>();
+        rows.add(String.format(Locale.ROOT, "%-9s %8s %12s %9s %9s %10s %8s",
+                "mode", "clients", "requests/s", "p50 ms", "p99 ms", "p99.9 ms", "errors"));
+        for (String mode : List.of("platform", "virtual")) {
+            ConfigurableApplicationContext context = start(mode);
+            try {
+                DataSeeder.Seeded seeded = LibraryState.seed(context, scale);
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                Target target = new Target(URI.create("http://localhost:" + port), seeded);
+
+                load(target, WARMUP_CLIENTS, WARMUP);
+                for (int clients : clientCounts) {
+                    Result result = load(target, clients, duration);
+                    rows.add(String.format(Locale.ROOT, "%-9s %8d %12.0f %9.1f %9.1f %10.1f %8d",
+                            mode, clients, result.throughput(), result.percentile(0.50), result.percentile(0.99),
+                            result.percentile(0.999), result.errors()));
+                }
+            } finally {
+                context.close();
+            }
+        }
+        rows.forEach(System.out::println);
+    }
+
+    private ConfigurableApplicationContext start(String mode) {
+        List<String> arguments = new ArrayList<>(LibraryState.arguments(scale));
+        arguments.add("--server.port=0");
+        if (mode.equals("virtual")) {
+            arguments.add("--spring.profiles.active=virtual-threads");
+        }
+        return new SpringApplicationBuilder(LibraryBookManagementSystemApplication.class)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    private Result load(Target target, int clients, Duration length) throws Exception {
+        int pairs = target.seeded.benchBorrowerIds().size() * target.seeded.benchBookIds().size();
+        if (clients > pairs) {
+            throw new IllegalArgumentException(
+                    "At most " + pairs + " clients have a (borrower, book) pair of their own");
+        }
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long deadline = System.nanoTime() + length.toNanos();
+        List<Future<Client>> running = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client(http, target, i);
+                running.add(executor.submit(() -> client.runUntil(deadline)));
+            }
+        }
+
+        List<Client> finished = new ArrayList<>(clients);
+        int total = 0;
+        for (Future<Client> future : running) {
+            Client client = future.get();
+            finished.add(client);
+            total += client.count;
+        }
+        long[] latencies = new long[total];
+        long errors = 0;
+        int offset = 0;
+        for (Client client : finished) {
+            System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+            offset += client.count;
+            errors += client.errors;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors, length);
+    }
+
+    private record Target(URI base, DataSeeder.Seeded seeded) {
+    }
+
+    private record Result(long[] latencies, long errors, Duration length) {
+
+        double throughput() {
+            return latencies.length / (length.toMillis() / 1000.0);
+        }
+
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = Math.min(latencies.length - 1, (int) Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    // One closed-loop client: a request is sent only after the previous response arrived
+    private static final class Client {
+
+        private final HttpClient http;
+        private final URI borrow;
+        private final URI giveBack;
+        private final String body;
+        private long[] latencies = new long[64];
+        private int count;
+        private long errors;
+        private boolean onLoan;
+
+        Client(HttpClient http, Target target, int index) {
+            List<UUID> borrowers = target.seeded.benchBorrowerIds();
+            List<UUID> books = target.seeded.benchBookIds();
+            UUID borrowerId = borrowers.get(index % borrowers.size());
+            UUID bookId = books.get(index / borrowers.size());
+            this.http = http;
+            this.borrow = target.base.resolve("/borrows/borrow-a-book");
+            this.giveBack = target.base.resolve("/borrows/return");
+            this.body = "{\"bookId\":\"" + bookId + "\",\"borrowerId\":\"" + borrowerId + "\"}";
+        }
+
+        Client runUntil(long deadline) {
+            try {
+                while (System.nanoTime() < deadline) {
+                    long started = System.nanoTime();
+                    if (send(onLoan ? giveBack : borrow)) {
+                        record(System.nanoTime() - started);
+                        onLoan = !onLoan;
+                    } else {
+                        errors++;
+                    }
+                }
+                // The next load level reuses this pair, so leave it without an open loan (not measured)
+                if (onLoan) {
+                    send(giveBack);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return this;
+        }
+
+        private boolean send(URI uri) throws InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            try {
+                return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+            } catch (IOException ex) {
+                return false;
+            }
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.example.cache;
+
+import com.example.dto.AvailabilitySummaryDTO;
+import com.example.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+// Per-category copy counts for non-deleted books, kept current by BookService and BorrowService
+@Component
+@RequiredArgsConstructor
+public class AvailabilityCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityCounters.class);
+
+    private final BookRepository bookRepository;
+    private final CatalogVersion catalogVersion;
+
+    private static final int REBUILD_ATTEMPTS = 10;
+
+    private final AtomicReference<ConcurrentHashMap<String, CategoryCounters>> counters =
+            new AtomicReference<>(new ConcurrentHashMap<>());
+
+    // A reload may only replace the map if no delta was in flight while its SELECT ran: a delta committed
+    // before the SELECT but applied after the swap would be counted twice, one applied to the old map lost.
+    // pending covers the gap between commit and the after-commit apply; applied moves on every apply.
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        for (int attempt = 0; attempt < REBUILD_ATTEMPTS; attempt++) {
+            if (reload(true)) {
+                return;
+            }
+        }
+        // Never quiet: take the load anyway, checkConsistency corrects any delta that raced with it
+        log.warn("Availability counters rebuilt while borrows were in flight; the next consistency check will correct them");
+        swapLock.writeLock().lock();
+        try {
+            counters.set(loadFromDatabase());
+            catalogVersion.bump();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    // Deltas are applied after commit so a rolled-back write never shows up on the dashboard
+    public void record(String category, long booksDelta, long availableDelta, long totalDelta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(category, booksDelta, availableDelta, totalDelta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                pending.incrementAndGet();
+                committing = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!committing) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        apply(category, booksDelta, availableDelta, totalDelta);
+                    }
+                } finally {
+                    pending.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private void apply(String category, long booksDelta, long availableDelta, long totalDelta) {
+        swapLock.readLock().lock();
+        try {
+            CategoryCounters categoryCounters = counters.get()
+                    .computeIfAbsent(category, key -> new CategoryCounters());
+            categoryCounters.books.add(booksDelta);
+            categoryCounters.available.add(availableDelta);
+            categoryCounters.total.add(totalDelta);
+            applied.incrementAndGet();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public List<AvailabilitySummaryDTO> getSummary() {
+        return counters.get().entrySet().stream()
+                .filter(entry -> entry.getValue().books.sum() > 0)
+                .map(entry -> new AvailabilitySummaryDTO(
+                        entry.getKey(),
+                        entry.getValue().available.sum(),
+                        entry.getValue().total.sum()
+                ))
+                .sorted(Comparator.comparing(AvailabilitySummaryDTO::getCategory))
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${library.availability.consistency-check-interval:PT5M}",
+            initialDelayString = "${library.availability.consistency-check-interval:PT5M}")
+    public void checkConsistency() {
+        // A round that overlaps a borrow or return is skipped; the next interval tries again
+        reload(false);
+    }
+
+    // Returns false without touching the map when a delta was in flight during the load
+    private boolean reload(boolean always) {
+        long appliedBefore = applied.get();
+        if (pending.get() > 0) {
+            return false;
+        }
+        ConcurrentHashMap<String, CategoryCounters> expected = loadFromDatabase();
+
+        swapLock.writeLock().lock();
+        try {
+            if (pending.get() > 0 || applied.get() != appliedBefore) {
+                return false;
+            }
+            if (!always) {
+                Map<String, String> current = describe(counters.get());
+                Map<String, String> actual = describe(expected);
+                if (current.equals(actual)) {
+                    return true;
+                }
+                log.warn("Availability counters drifted from the database, rebuilding: {} vs {}", current, actual);
+            }
+            // Also after the startup rebuild: a summary polled before it was empty and cached under the old ETag
+            counters.set(expected);
+            catalogVersion.bump();
+            return true;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private ConcurrentHashMap<String, CategoryCounters> loadFromDatabase() {
+        ConcurrentHashMap<String, CategoryCounters> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : bookRepository.getAvailabilitySummary()) {
+            CategoryCounters categoryCounters = new CategoryCounters();
+            categoryCounters.available.add(((Number) row[1]).longValue());
+            categoryCounters.total.add(((Number) row[2]).longValue());
+            categoryCounters.books.add(((Number) row[3]).longValue());
+            loaded.put((String) row[0], categoryCounters);
+        }
+        return loaded;
+    }
+
+    private Map<String, String> describe(Map<String, CategoryCounters> source) {
+        Map<String, String> described = new HashMap<>();
+        source.forEach((category, categoryCounters) -> {
+            if (categoryCounters.books.sum() > 0) {
+                described.put(category, categoryCounters.available.sum() + "/" + categoryCounters.total.sum());
+            }
+        });
+        return described;
+    }
+
+    private static final class CategoryCounters {
+        private final LongAdder books = new LongAdder();
+        private final LongAdder available = new LongAdder();
+        private final LongAdder total = new LongAdder();
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.example.cache;
+
+import com.example.dto.TopBookDTO;
+import com.example.repository.ArchivedBorrowRecordRepository;
+import com.example.repository.BorrowRecordRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Running borrow counts per book for the analytics windows, so top-N never scans borrow_records
+@Component
+public class BorrowTrendTracker {
+
+    public static final List<Integer> WINDOWS = List.of(7, 30, 365);
+    private static final int MAX_WINDOW = 365;
+    private static final int ID_CHECK_CHUNK = 1000;
+    // Key for the all-time ranking in topCache, which cannot hold a null key
+    private static final int ALL_TIME = 0;
+
+    private final BorrowRecordRepository borrowRecordRepository;
+    private final ArchivedBorrowRecordRepository archivedBorrowRecordRepository;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate snapshotTransaction;
+
+    // One bucket per borrow date; a window drops a day by subtracting that day's bucket
+    private final ConcurrentHashMap<LocalDate, ConcurrentHashMap<UUID, LongAdder>> dailyCounts = new ConcurrentHashMap<>();
+    private final Map<Integer, ConcurrentHashMap<UUID, LongAdder>> windowCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, LongAdder> allTimeCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, String> titles = new ConcurrentHashMap<>();
+
+    // Borrows committed while a warm-up runs. Appliers hold the read lock; the write lock flips ready, so a
+    // borrow is either buffered or applied to the loaded counts, never neither.
+    private final ConcurrentLinkedQueue<PendingBorrow> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantReadWriteLock readyLock = new ReentrantReadWriteLock();
+
+    // Last ranking per window, valid while neither the catalog version nor the tracker's own generation
+    // (warm-up, day rollover) has moved
+    private final ConcurrentHashMap<Integer, CachedTop> topCache = new ConcurrentHashMap<>();
+    private volatile long generation;
+
+    private volatile LocalDate currentDay;
+    private volatile boolean ready;
+
+    public BorrowTrendTracker(BorrowRecordRepository borrowRecordRepository,
+                              ArchivedBorrowRecordRepository archivedBorrowRecordRepository,
+                              CatalogVersion catalogVersion,
+                              PlatformTransactionManager transactionManager) {
+        this.borrowRecordRepository = borrowRecordRepository;
+        this.archivedBorrowRecordRepository = archivedBorrowRecordRepository;
+        this.catalogVersion = catalogVersion;
+        // One snapshot for the loads and the buffered-id check, so "already counted" means seen by the loads
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        readyLock.writeLock().lock();
+        try {
+            ready = false;
+            pending.clear();
+        } finally {
+            readyLock.writeLock().unlock();
+        }
+        snapshotTransaction.executeWithoutResult(status -> load(LocalDate.now()));
+    }
+
+    private void load(LocalDate today) {
+        WINDOWS.forEach(days -> windowCounts.put(days, new ConcurrentHashMap<>()));
+        dailyCounts.clear();
+        allTimeCounts.clear();
+
+        // Every book's all-time count is needed to seed the counters, summed over both tiers by the query
+        for (Object[] row : borrowRecordRepository.findTopBorrowedBooks(Pageable.unpaged())) {
+            UUID bookId = (UUID) row[0];
+            titles.put(bookId, (String) row[1]);
+            counter(allTimeCounts, bookId).add(((Number) row[2]).longValue());
+        }
+
+        LocalDate since = today.minusDays(MAX_WINDOW - 1);
+        List<Object[]> perBookAndDay = new ArrayList<>(borrowRecordRepository.countBorrowsPerBookAndDay(since));
+        perBookAndDay.addAll(archivedBorrowRecordRepository.countBorrowsPerBookAndDay(since));
+        for (Object[] row : perBookAndDay) {
+            UUID bookId = (UUID) row[0];
+            LocalDate day = (LocalDate) row[1];
+            long count = ((Number) row[2]).longValue();
+            counter(dailyCounts.computeIfAbsent(day, key -> new ConcurrentHashMap<>()), bookId).add(count);
+            for (int days : WINDOWS) {
+                if (inWindow(day, today, days)) {
+                    counter(windowCounts.get(days), bookId).add(count);
+                }
+            }
+        }
+
+        currentDay = today;
+        readyLock.writeLock().lock();
+        try {
+            // Buffered borrows the loads already saw were committed before the snapshot; replay the rest
+            List<PendingBorrow> buffered = new ArrayList<>(pending);
+            pending.clear();
+            Set<UUID> counted = new HashSet<>();
+            for (int from = 0; from < buffered.size(); from += ID_CHECK_CHUNK) {
+                List<UUID> ids = buffered.subList(from, Math.min(from + ID_CHECK_CHUNK, buffered.size())).stream()
+                        .map(PendingBorrow::recordId)
+                        .toList();
+                counted.addAll(borrowRecordRepository.findExistingIds(ids));
+            }
+            buffered.stream()
+                    .filter(borrow -> !counted.contains(borrow.recordId()))
+                    .forEach(this::apply);
+            generation++;
+            ready = true;
+        } finally {
+            readyLock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void recordBorrow(UUID recordId, UUID bookId, String title, LocalDate borrowDate) {
+        AfterCommit.run(() -> {
+            PendingBorrow borrow = new PendingBorrow(recordId, bookId, title, borrowDate);
+            readyLock.readLock().lock();
+            try {
+                if (ready) {
+                    apply(borrow);
+                } else {
+                    pending.add(borrow);
+                }
+            } finally {
+                readyLock.readLock().unlock();
+            }
+        });
+    }
+
+    private void apply(PendingBorrow borrow) {
+        titles.put(borrow.bookId(), borrow.title());
+        counter(allTimeCounts, borrow.bookId()).increment();
+        counter(dailyCounts.computeIfAbsent(borrow.borrowDate(), key -> new ConcurrentHashMap<>()), borrow.bookId())
+                .increment();
+        for (int days : WINDOWS) {
+            if (inWindow(borrow.borrowDate(), currentDay, days)) {
+                counter(windowCounts.get(days), borrow.bookId()).increment();
+            }
+        }
+    }
+
+    public void renameBook(UUID bookId, String title) {
+        AfterCommit.run(() -> titles.computeIfPresent(bookId, (id, previous) -> title));
+    }
+
+    // days == null means all time. Every borrow bumps the catalog version, so the heap walk over all books
+    // runs at most once per change instead of once per call; a cached longer list also answers smaller limits.
+    public List<TopBookDTO> top(int limit, Integer days) {
+        // Read before counting: a result stored under these stamps is at least as new as they are
+        long version = catalogVersion.current();
+        long currentGeneration = generation;
+        int key = days == null ? ALL_TIME : days;
+        CachedTop cached = topCache.get(key);
+        if (cached != null && cached.version() == version && cached.generation() == currentGeneration
+                && (cached.limit() >= limit || cached.books().size() < cached.limit())) {
+            return cached.books().subList(0, Math.min(limit, cached.books().size()));
+        }
+
+        List<TopBookDTO> books = List.copyOf(rank(limit, days));
+        topCache.put(key, new CachedTop(version, currentGeneration, limit, books));
+        return books;
+    }
+
+    private List<TopBookDTO> rank(int limit, Integer days) {
+        Map<UUID, LongAdder> counts = days == null ? allTimeCounts : windowCounts.getOrDefault(days, new ConcurrentHashMap<>());
+        PriorityQueue<TopBookDTO> heap = new PriorityQueue<>(
+                Comparator.comparingLong(TopBookDTO::getBorrowCount));
+
+        counts.forEach((bookId, adder) -> {
+            long count = adder.sum();
+            if (count <= 0) {
+                return;
+            }
+            if (heap.size() < limit) {
+                heap.add(new TopBookDTO(bookId, titles.get(bookId), count));
+            } else if (count > heap.peek().getBorrowCount()) {
+                heap.poll();
+                heap.add(new TopBookDTO(bookId, titles.get(bookId), count));
+            }
+        });
+
+        List<TopBookDTO> result = new ArrayList<>(heap);
+        result.sort(Comparator.comparingLong(TopBookDTO::getBorrowCount).reversed());
+        return result;
+    }
+
+    // Slides every window forward to today, including any days missed while the app was down
+    @Scheduled(cron = "0 0 0 * * ?")
+    public synchronized void advanceDay() {
+        if (!ready) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (LocalDate day = currentDay.plusDays(1); !day.isAfter(today); day = day.plusDays(1)) {
+            for (int days : WINDOWS) {
+                ConcurrentHashMap<UUID, LongAdder> expired = dailyCounts.get(day.minusDays(days));
+                if (expired != null) {
+                    ConcurrentHashMap<UUID, LongAdder> window = windowCounts.get(days);
+                    expired.forEach((bookId, adder) -> counter(window, bookId).add(-adder.sum()));
+                }
+            }
+            dailyCounts.remove(day.minusDays(MAX_WINDOW));
+            currentDay = day;
+        }
+        generation++;
+    }
+
+    // No upper bound: a borrow dated just after midnight may land before advanceDay has run
+    private static boolean inWindow(LocalDate day, LocalDate today, int days) {
+        return !day.isBefore(today.minusDays(days - 1));
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<UUID, LongAdder> counts, UUID bookId) {
+        return counts.computeIfAbsent(bookId, key -> new LongAdder());
+    }
+
+    private record PendingBorrow(UUID recordId, UUID bookId, String title, LocalDate borrowDate) {
+    }
+
+    private record CachedTop(long version, long generation, int limit, List<TopBookDTO> books) {
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Change counter behind the catalog ETags. Writers bump it after commit, once their other after-commit
+// updates (counters, indexes) are registered, so a new tag never describes old data.
+@Component
+public class CatalogVersion {
+
+    // Distinguishes restarts, where the counter starts over
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    public void bump() {
+        AfterCommit.run(version::incrementAndGet);
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public String etag() {
+        return "\"" + Long.toString(epoch, 36) + "-" + current() + "\"";
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.example.cache;
+
+import com.example.entity.FinePolicy;
+import com.example.repository.FinePolicyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// The whole fine_policies table as an immutable map; readers never lock and refreshes swap the reference
+@Component
+@RequiredArgsConstructor
+public class FinePolicyCache implements SmartInitializingSingleton {
+
+    private final FinePolicyRepository finePolicyRepository;
+
+    private final AtomicReference<Map<String, BigDecimal>> policies = new AtomicReference<>(Map.of());
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile LocalDateTime lastRefreshed;
+
+    // Loaded once every singleton exists (data.sql / Flyway have run) and before the web server starts taking
+    // requests; ApplicationReadyEvent comes after that, and returns in between would get the default fine
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+    }
+
+    public void refresh() {
+        Map<String, BigDecimal> loaded = finePolicyRepository.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(FinePolicy::getCategory, FinePolicy::getFinePerDay));
+        policies.set(loaded);
+        lastRefreshed = LocalDateTime.now();
+    }
+
+    public Optional<BigDecimal> getFinePerDay(String category) {
+        BigDecimal finePerDay = policies.get().get(category);
+        if (finePerDay == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(finePerDay);
+    }
+
+    public Map<String, BigDecimal> snapshot() {
+        return policies.get();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public LocalDateTime getLastRefreshed() {
+        return lastRefreshed;
+    }
+
+}
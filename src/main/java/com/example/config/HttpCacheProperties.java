@@ -0,0 +1,29 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Per-endpoint Cache-Control for the ETag-backed catalog reads, e.g. library.http-cache.max-age.get-books=30s.
+// Endpoints without an entry get no-cache: clients keep the body but revalidate with If-None-Match every time.
+@Data
+@Component
+@ConfigurationProperties(prefix = "library.http-cache")
+public class HttpCacheProperties {
+
+    private Map<String, Duration> maxAge = new HashMap<>();
+
+    public CacheControl cacheControl(String endpoint) {
+        Duration duration = maxAge.get(endpoint);
+        if (duration == null || duration.isZero()) {
+            return CacheControl.noCache();
+        }
+        return CacheControl.maxAge(duration).cachePublic();
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Read replica for read-only transactions and @ReadFromReplica endpoints (see com.example.routing)
+@Data
+@Component
+@ConfigurationProperties(prefix = "library.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private String url;
+    private String username;
+    private String password;
+
+    // Replica pool, sized separately from the primary so analytics cannot starve the borrow path
+    private int maximumPoolSize = 10;
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+
+    // Reads fall back to the primary while the replica is unreachable or further behind than this
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    // Returns replication lag in seconds, e.g. for PostgreSQL:
+    // SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+    // When empty only connectivity is checked
+    private String lagQuery;
+
+}
@@ -0,0 +1,39 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Query instrumentation (see com.example.metrics.SqlInstrumentationConfig). Budgets are keyed by the
+// endpoint's request mapping, e.g. library.sql.budgets.[/books/get-books]=4
+@Data
+@Component
+@ConfigurationProperties(prefix = "library.sql")
+public class SqlInstrumentationProperties {
+
+    private boolean enabled = true;
+
+    // Statements at or above this are logged with their bind parameters and endpoint
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    // Fraction of requests whose statement count and time are logged (metrics cover every request)
+    private double sampleRate = 0.01;
+
+    // Statement budget for endpoints without their own entry; 0 disables the check
+    private int defaultBudget = 0;
+
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    // Throw instead of only logging when a request goes over budget. For tests only: the response is already
+    // committed by then, so a real client still sees it succeed while MockMvc sees the exception.
+    private boolean failOnBudgetExceeded = false;
+
+    public int budgetFor(String pattern) {
+        return budgets.getOrDefault(pattern, defaultBudget);
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.example.controller;
+
+import com.example.dto.ArchiveRunDTO;
+import com.example.dto.CacheRegionStatsDTO;
+import com.example.dto.FinePolicyCacheStatsDTO;
+import com.example.dto.FinePolicyDTO;
+import com.example.dto.OverdueRunDTO;
+import com.example.service.BorrowArchiveService;
+import com.example.service.FinePolicyService;
+import com.example.service.OverdueProcessingService;
+import com.example.service.SecondLevelCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administration", description = "APIs for library configuration and internals")
+public class AdminController {
+
+    private final FinePolicyService finePolicyService;
+    private final OverdueProcessingService overdueProcessingService;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final BorrowArchiveService borrowArchiveService;
+
+    @GetMapping("/fine-policies")
+    @Operation(summary = "Get all fine policies")
+    public ResponseEntity<List<FinePolicyDTO>> getFinePolicies() {
+        List<FinePolicyDTO> policies = finePolicyService.getPolicies();
+        return ResponseEntity.ok(policies);
+    }
+
+    @PutMapping("/fine-policies/{category}")
+    @Operation(summary = "Create or update the fine policy of a category")
+    public ResponseEntity<FinePolicyDTO> saveFinePolicy(
+            @PathVariable String category,
+            @Valid @RequestBody FinePolicyDTO policyDTO) {
+        FinePolicyDTO policy = finePolicyService.savePolicy(category, policyDTO);
+        return ResponseEntity.ok(policy);
+    }
+
+    @GetMapping("/fine-policies/cache-stats")
+    @Operation(summary = "Get fine policy cache statistics")
+    public ResponseEntity<FinePolicyCacheStatsDTO> getFinePolicyCacheStats() {
+        FinePolicyCacheStatsDTO stats = finePolicyService.getCacheStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/cache-regions")
+    @Operation(summary = "Get hit ratio and size of each Hibernate second-level cache region")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getCacheRegionStats() {
+        List<CacheRegionStatsDTO> stats = secondLevelCacheService.getRegionStats();
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/jobs/overdue")
+    @Operation(summary = "Get row count and duration of the last overdue processing run")
+    public ResponseEntity<OverdueRunDTO> getLastOverdueRun() {
+        OverdueRunDTO run = overdueProcessingService.getLastRun();
+        return run == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(run);
+    }
+
+    @PostMapping("/jobs/overdue/run")
+    @Operation(summary = "Run overdue processing now, resuming an interrupted run from today")
+    public ResponseEntity<OverdueRunDTO> runOverdueProcessing() {
+        OverdueRunDTO run = overdueProcessingService.processOverdueRecords();
+        return ResponseEntity.ok(run);
+    }
+
+    @GetMapping("/jobs/archive")
+    @Operation(summary = "Get row count and duration of the last borrow record archival run")
+    public ResponseEntity<ArchiveRunDTO> getLastArchiveRun() {
+        ArchiveRunDTO run = borrowArchiveService.getLastRun();
+        return run == null ? ResponseEntity.noContent().build() : ResponseEntity.ok(run);
+    }
+
+    @PostMapping("/jobs/archive/run")
+    @Operation(summary = "Move returned borrow records past the retention window to the archive now")
+    public ResponseEntity<ArchiveRunDTO> runArchival() {
+        ArchiveRunDTO run = borrowArchiveService.archiveClosedRecords();
+        return ResponseEntity.ok(run);
+    }
+
+}
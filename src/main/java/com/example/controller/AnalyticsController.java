@@ -2,10 +2,14 @@ package com.example.controller;
 
 import com.example.dto.BorrowerActivityDTO;
 import com.example.dto.TopBookDTO;
+import com.example.routing.ReadFromReplica;
 import com.example.service.BorrowService;
+import com.example.service.BorrowerActivityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,21 +22,28 @@ import java.util.List;
 @RequestMapping("/analytics")
 @RequiredArgsConstructor
 @Tag(name = "Analytics", description = "APIs for analytics and reports")
+@ReadFromReplica
 public class AnalyticsController {
     private final BorrowService borrowService;
+    private final BorrowerActivityService borrowerActivityService;
 
     @GetMapping("/top-borrowed-books")
-    @Operation(summary = "Get top 5 most borrowed books")
+    @Operation(summary = "Get top 5 most borrowed books, optionally over the last 7, 30 or 365 days")
     public ResponseEntity<List<TopBookDTO>> getTopBorrowedBooks(
-            @RequestParam(defaultValue = "5") int limit) {
-        List<TopBookDTO> topBooks = borrowService.getTopBorrowedBooks(limit);
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) Integer days) {
+        List<TopBookDTO> topBooks = borrowService.getTopBorrowedBooks(limit, days);
         return ResponseEntity.ok(topBooks);
     }
 
     @GetMapping("/borrower-activity")
-    @Operation(summary = "Get borrower activity statistics")
-    public ResponseEntity<List<BorrowerActivityDTO>> getBorrowerActivity() {
-        List<BorrowerActivityDTO> activity = borrowService.getBorrowerActivity();
+    @Operation(summary = "Get borrower activity statistics, e.g. top borrowers by fines")
+    public ResponseEntity<Page<BorrowerActivityDTO>> getBorrowerActivity(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "totalFines") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction direction) {
+        Page<BorrowerActivityDTO> activity = borrowerActivityService.getBorrowerActivity(page, size, sortBy, direction);
         return ResponseEntity.ok(activity);
     }
 
@@ -3,9 +3,15 @@ package com.example.controller;
 
 import com.example.dto.AvailabilitySummaryDTO;
 import com.example.dto.BookDTO;
+import com.example.dto.BookImportResultDTO;
+import com.example.dto.BookSearchResultDTO;
+import com.example.dto.CursorPageDTO;
+import com.example.dto.SuggestionDTO;
+import com.example.service.BookImportService;
 import com.example.service.BookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -13,8 +19,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,6 +37,8 @@ import java.util.UUID;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final ConditionalResponses conditionalResponses;
 
     @PostMapping("/add-book")
     @Operation(summary = " Add a new book ")
@@ -35,6 +47,18 @@ public class BookController {
         return new ResponseEntity<>(savedBook, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk-import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import books from a CSV (with header) or NDJSON request body")
+    public ResponseEntity<BookImportResultDTO> bulkImport(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        BookImportService.Format format = MediaType.APPLICATION_NDJSON.includes(contentType)
+                ? BookImportService.Format.NDJSON
+                : BookImportService.Format.CSV;
+
+        BookImportResultDTO result = bookImportService.importBooks(request.getInputStream(), format);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/get-books")
     @Operation(summary = "Get all books with optional filters")
     public ResponseEntity<Page<BookDTO>> getBooks(
@@ -42,13 +66,44 @@ public class BookController {
             @RequestParam(required = false) Boolean available,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "title") String sortBy) {
+            @RequestParam(defaultValue = "title") String sortBy,
+            WebRequest request) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy));
-        Page<BookDTO> books = bookService.getBooks(category, available, pageable);
+        return conditionalResponses.catalog(request, "get-books",
+                () -> bookService.getBooks(category, available, pageable));
+    }
+
+    @GetMapping("/get-books/keyset")
+    @Operation(summary = "Get books with optional filters using cursor (keyset) pagination")
+    public ResponseEntity<CursorPageDTO<BookDTO>> getBooksKeyset(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "title") String sortBy) {
+
+        CursorPageDTO<BookDTO> books = bookService.getBooksKeyset(category, available, sortBy, cursor, size);
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search title, author and category with prefix and typo tolerance")
+    public ResponseEntity<List<BookSearchResultDTO>> searchBooks(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<BookSearchResultDTO> results = bookService.searchBooks(q, limit);
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Suggest titles and authors for a typed prefix")
+    public ResponseEntity<List<SuggestionDTO>> autocomplete(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(bookService.autocomplete(prefix, limit));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = " Update book details ")
     public ResponseEntity<BookDTO> updateBook(
@@ -67,16 +122,14 @@ public class BookController {
 
     @GetMapping("/similar/{id}")
     @Operation(summary = "Get similar books by category or author")
-    public ResponseEntity<List<BookDTO>> getSimilarBooks(@PathVariable UUID id) {
-        List<BookDTO> similarBooks = bookService.getSimilarBooks(id);
-        return ResponseEntity.ok(similarBooks);
+    public ResponseEntity<List<BookDTO>> getSimilarBooks(@PathVariable UUID id, WebRequest request) {
+        return conditionalResponses.catalog(request, "similar", () -> bookService.getSimilarBooks(id));
     }
 
     @GetMapping("/availability-summary")
     @Operation(summary = "Get availability summary by category")
-    public ResponseEntity<List<AvailabilitySummaryDTO>> getAvailabilitySummary() {
-        List<AvailabilitySummaryDTO> summary = bookService.getAvailabilitySummary();
-        return ResponseEntity.ok(summary);
+    public ResponseEntity<List<AvailabilitySummaryDTO>> getAvailabilitySummary(WebRequest request) {
+        return conditionalResponses.catalog(request, "availability-summary", bookService::getAvailabilitySummary);
     }
 
 }
@@ -1,7 +1,11 @@
 package com.example.controller;
 
+import com.example.dto.BatchBorrowRequestDTO;
+import com.example.dto.BatchResultDTO;
+import com.example.dto.BatchReturnRequestDTO;
 import com.example.dto.BorrowRecordDTO;
 import com.example.dto.BorrowRequestDTO;
+import com.example.dto.CursorPageDTO;
 import com.example.dto.ReturnRequestDTO;
 import com.example.service.BorrowService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,8 +13,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +27,7 @@ import java.util.UUID;
 public class BorrowController {
 
     private final BorrowService borrowService;
+    private final NdjsonResponses ndjsonResponses;
 
     @PostMapping("/borrow-a-book")
     @Operation(summary = "Borrow a book")
@@ -36,6 +43,20 @@ public class BorrowController {
         return ResponseEntity.ok(record);
     }
 
+    @PostMapping("/batch/borrow")
+    @Operation(summary = "Borrow a stack of books in one transaction, with a result per book")
+    public ResponseEntity<BatchResultDTO> borrowBooks(@Valid @RequestBody BatchBorrowRequestDTO request) {
+        BatchResultDTO result = borrowService.borrowBooks(request);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/batch/return")
+    @Operation(summary = "Return a stack of books in one transaction, with a result per book")
+    public ResponseEntity<BatchResultDTO> returnBooks(@Valid @RequestBody BatchReturnRequestDTO request) {
+        BatchResultDTO result = borrowService.returnBooks(request);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/records/active")
     @Operation(summary = "Get all currently borrowed books")
     public ResponseEntity<List<BorrowRecordDTO>> getActiveRecords() {
@@ -43,4 +64,19 @@ public class BorrowController {
         return ResponseEntity.ok(records);
     }
 
+    @GetMapping("/records/active/page")
+    @Operation(summary = "Get currently borrowed books one cursor page at a time")
+    public ResponseEntity<CursorPageDTO<BorrowRecordDTO>> getActiveRecordsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPageDTO<BorrowRecordDTO> page = borrowService.getActiveRecordsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/records/active/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all currently borrowed books as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamActiveRecords() {
+        return ndjsonResponses.<BorrowRecordDTO>stream(borrowService::streamActiveRecords);
+    }
+
 }
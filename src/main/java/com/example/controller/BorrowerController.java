@@ -3,14 +3,17 @@ package com.example.controller;
 
 import com.example.dto.BorrowRecordDTO;
 import com.example.dto.BorrowerDTO;
+import com.example.dto.CursorPageDTO;
 import com.example.service.BorrowerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,6 +26,7 @@ import java.util.UUID;
 public class BorrowerController {
 
     private final BorrowerService borrowerService;
+    private final NdjsonResponses ndjsonResponses;
 
     @PostMapping("/add-new-borrower")
     @Operation(summary = "Register a new borrower")
@@ -38,6 +42,24 @@ public class BorrowerController {
         return ResponseEntity.ok(records);
     }
 
+    @GetMapping("/{id}/records/page")
+    @Operation(summary = "Get borrow history of a borrower one cursor page at a time")
+    public ResponseEntity<CursorPageDTO<BorrowRecordDTO>> getBorrowHistoryPage(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        CursorPageDTO<BorrowRecordDTO> page = borrowerService.getBorrowHistoryPage(id, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/{id}/records/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream the full borrow history of a borrower as NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamBorrowHistory(@PathVariable UUID id) {
+        // Validate up front so a missing borrower is still a 404 rather than an empty stream
+        borrowerService.checkBorrowerExists(id);
+        return ndjsonResponses.<BorrowRecordDTO>stream(sink -> borrowerService.streamBorrowHistory(id, sink));
+    }
+
     @GetMapping("/overdue")
     @Operation(summary = "Get all borrowers with overdue books")
     public ResponseEntity<List<BorrowerDTO>> getOverdueBorrowers() {
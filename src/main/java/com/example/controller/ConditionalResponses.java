@@ -0,0 +1,49 @@
+package com.example.controller;
+
+import com.example.cache.CatalogVersion;
+import com.example.config.HttpCacheProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// Conditional GET for catalog reads: a matching If-None-Match is answered before the body is built
+@Component
+@RequiredArgsConstructor
+public class ConditionalResponses {
+
+    private final CatalogVersion catalogVersion;
+    private final HttpCacheProperties httpCacheProperties;
+
+    public <T> ResponseEntity<T> catalog(WebRequest request, String endpoint, Supplier<T> body) {
+        String etag = catalogVersion.etag();
+        CacheControl cacheControl = httpCacheProperties.cacheControl(endpoint);
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
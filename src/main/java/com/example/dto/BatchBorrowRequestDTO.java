@@ -0,0 +1,25 @@
+package com.example.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBorrowRequestDTO {
+
+    @NotNull(message = "Borrower ID is required")
+    private UUID borrowerId;
+
+    @NotEmpty(message = "At least one book ID is required")
+    @Size(max = 50, message = "At most 50 books can be processed at once")
+    private List<@NotNull(message = "Book ID is required") UUID> bookIds;
+
+}
@@ -0,0 +1,23 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookImportResultDTO {
+
+    private long rowsRead;
+    private long created;
+    private long updated;
+    private long failed;
+    private long durationMs;
+    private double rowsPerSecond;
+    private List<BookImportErrorDTO> errors;
+    private boolean errorsTruncated;
+
+}
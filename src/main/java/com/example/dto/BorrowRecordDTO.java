@@ -25,5 +25,12 @@ public class BorrowRecordDTO {
     private Boolean active;
     private Boolean overdue;
 
+    // Used by the JPQL constructor projections in BorrowRecordRepository
+    public BorrowRecordDTO(UUID id, UUID bookId, String bookTitle, UUID borrowerId, String borrowerName,
+                           LocalDate borrowDate, LocalDate dueDate, LocalDate returnDate,
+                           BigDecimal fineAmount, Boolean active) {
+        this(id, bookId, bookTitle, borrowerId, borrowerName, borrowDate, dueDate, returnDate,
+                fineAmount, active, returnDate == null && LocalDate.now().isAfter(dueDate));
+    }
 
 }
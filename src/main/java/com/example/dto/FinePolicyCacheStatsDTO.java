@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FinePolicyCacheStatsDTO {
+
+    private int policies;
+    private long hits;
+    private long misses;
+    private double hitRatio;
+    private LocalDateTime lastRefreshed;
+
+}
@@ -0,0 +1,22 @@
+package com.example.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FinePolicyDTO {
+
+    private String category;
+
+    @NotNull(message = "Fine per day is required")
+    @DecimalMin(value = "0.00", message = "Fine per day must not be negative")
+    private BigDecimal finePerDay;
+
+}
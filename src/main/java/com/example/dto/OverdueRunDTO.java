@@ -0,0 +1,22 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueRunDTO {
+
+    private LocalDate runDate;
+    private boolean resumed;
+    private long rowsProcessed;
+    private int chunks;
+    private long durationMs;
+    private LocalDateTime finishedAt;
+
+}
@@ -0,0 +1,56 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Cold tier of borrow_records: returned loans moved out by BorrowArchiveService, keyed by borrow month.
+// Rows keep their original id and are never updated once written.
+@Entity
+@Table(name = "borrow_records_archive", indexes = {
+        @Index(name = "idx_borrow_archive_month", columnList = "archive_month"),
+        @Index(name = "idx_borrow_archive_borrower", columnList = "borrower_id, id"),
+        @Index(name = "idx_borrow_archive_borrow_date", columnList = "borrow_date, book_id"),
+        @Index(name = "idx_borrow_archive_book", columnList = "book_id, borrower_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class ArchivedBorrowRecord {
+
+    @Id
+    private UUID id;
+
+    // yyyymm of borrowDate
+    @Column(nullable = false)
+    private Integer archiveMonth;
+
+    @Column(nullable = false)
+    private UUID bookId;
+
+    @Column(nullable = false)
+    private UUID borrowerId;
+
+    @Column(nullable = false)
+    private LocalDate borrowDate;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    @Column(nullable = false)
+    private LocalDate returnDate;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal fineAmount;
+
+    @Column(nullable = false)
+    private Boolean overdueFlagged;
+
+
+}
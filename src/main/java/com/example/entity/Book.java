@@ -4,13 +4,23 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 import java.util.UUID;
 
 
 @Entity
-@Table(name = "books")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "books")
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_title_id", columnList = "title, id"),
+        @Index(name = "idx_books_author_id", columnList = "author, id"),
+        @Index(name = "idx_books_title_author", columnList = "title, author"),
+        @Index(name = "idx_books_category_deleted", columnList = "category, deleted"),
+        @Index(name = "idx_books_available_deleted", columnList = "is_available, deleted")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,30 +41,18 @@ public class Book {
     @Column(nullable = false)
     private String category;
 
-    @Column(nullable = false)
+    // Copy columns are written on insert and otherwise only by the relative updates in BookCopyUpdates,
+    // so saving a Book loaded before a concurrent borrow can never put back a stale count
+    @Column(nullable = false, updatable = false)
     private Boolean isAvailable = true;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer totalCopies = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer availableCopies = 0;
 
     @Column(nullable = false)
     private Boolean deleted = false;
 
-    public void decrementAvailableCopies() {
-        if (availableCopies > 0) {
-            availableCopies--;
-            isAvailable = availableCopies > 0;
-        }
-    }
-
-    public void incrementAvailableCopies() {
-        if (availableCopies < totalCopies) {
-            availableCopies++;
-            isAvailable = true;
-        }
-    }
-
 }
@@ -0,0 +1,40 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+// Precomputed top-K neighbours per book, ordered by neighbor_rank; refreshed by BookSimilarityService
+@Entity
+@Table(name = "book_similarities", indexes = {
+        @Index(name = "idx_book_similarities_book_rank", columnList = "book_id, neighbor_rank")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class BookSimilarity {
+
+    // Row pointing at the book itself, written with every neighbour list (also an empty one) to mark it computed
+    public static final int COMPUTED_MARKER_RANK = -1;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "book_id", nullable = false)
+    private UUID bookId;
+
+    @Column(nullable = false)
+    private UUID similarBookId;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(name = "neighbor_rank", nullable = false)
+    private Integer neighborRank;
+
+}
@@ -4,13 +4,19 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "borrow_records")
+@Table(name = "borrow_records", indexes = {
+        @Index(name = "idx_borrow_records_book_active", columnList = "book_id, active, return_date"),
+        @Index(name = "idx_borrow_records_borrower_active", columnList = "borrower_id, active, return_date"),
+        @Index(name = "idx_borrow_records_active_due", columnList = "active, due_date"),
+        @Index(name = "idx_borrow_records_active_returned", columnList = "active, return_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,6 +52,11 @@ public class BorrowRecord {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Set by the daily overdue job, which also accrues fineAmount up to the run date
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private Boolean overdueFlagged = false;
+
     public boolean isOverdue() {
         return returnDate == null && LocalDate.now().isAfter(dueDate);
     }
@@ -4,6 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +14,8 @@ import java.util.UUID;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "borrowers")
 @Table(name = "borrowers")
 @Data
 @NoArgsConstructor
@@ -35,6 +40,11 @@ public class Borrower {
     @Column(nullable = false)
     private Integer maxBorrowLimit;
 
+    // Maintained by BorrowService on borrow/return and rebuilt from borrow_records at startup
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer activeLoanCount = 0;
+
     @OneToMany(mappedBy = "borrower", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<BorrowRecord> borrowRecords = new ArrayList<>();
 
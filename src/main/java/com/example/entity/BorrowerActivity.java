@@ -0,0 +1,40 @@
+package com.example.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Rollup of borrow_records per borrower, maintained on borrow/return and refreshed nightly
+@Entity
+@Table(name = "borrower_activity", indexes = {
+        @Index(name = "idx_borrower_activity_fines", columnList = "total_fines"),
+        @Index(name = "idx_borrower_activity_borrowed", columnList = "total_borrowed"),
+        @Index(name = "idx_borrower_activity_overdue", columnList = "overdue_count")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+
+public class BorrowerActivity {
+
+    @Id
+    private UUID borrowerId;
+
+    @Column(nullable = false)
+    private String borrowerName;
+
+    @Column(nullable = false)
+    private Long totalBorrowed = 0L;
+
+    @Column(nullable = false)
+    private Long overdueCount = 0L;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalFines = BigDecimal.ZERO;
+
+
+}
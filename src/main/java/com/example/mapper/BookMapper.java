@@ -0,0 +1,22 @@
+package com.example.mapper;
+
+import com.example.dto.BookDTO;
+import com.example.entity.Book;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookMapper {
+
+    public BookDTO toDTO(Book book) {
+        BookDTO dto = new BookDTO();
+        dto.setId(book.getId());
+        dto.setTitle(book.getTitle());
+        dto.setAuthor(book.getAuthor());
+        dto.setCategory(book.getCategory());
+        dto.setIsAvailable(book.getIsAvailable());
+        dto.setTotalCopies(book.getTotalCopies());
+        dto.setAvailableCopies(book.getAvailableCopies());
+        return dto;
+    }
+
+}
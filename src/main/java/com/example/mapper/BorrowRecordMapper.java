@@ -0,0 +1,26 @@
+package com.example.mapper;
+
+import com.example.dto.BorrowRecordDTO;
+import com.example.entity.BorrowRecord;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BorrowRecordMapper {
+
+    public BorrowRecordDTO toDTO(BorrowRecord record) {
+        BorrowRecordDTO dto = new BorrowRecordDTO();
+        dto.setId(record.getId());
+        dto.setBookId(record.getBook().getId());
+        dto.setBookTitle(record.getBook().getTitle());
+        dto.setBorrowerId(record.getBorrower().getId());
+        dto.setBorrowerName(record.getBorrower().getName());
+        dto.setBorrowDate(record.getBorrowDate());
+        dto.setDueDate(record.getDueDate());
+        dto.setReturnDate(record.getReturnDate());
+        dto.setFineAmount(record.getFineAmount());
+        dto.setActive(record.getActive());
+        dto.setOverdue(record.isOverdue());
+        return dto;
+    }
+
+}
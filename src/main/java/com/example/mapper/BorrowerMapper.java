@@ -0,0 +1,20 @@
+package com.example.mapper;
+
+import com.example.dto.BorrowerDTO;
+import com.example.entity.Borrower;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BorrowerMapper {
+
+    public BorrowerDTO toDTO(Borrower borrower) {
+        BorrowerDTO dto = new BorrowerDTO();
+        dto.setId(borrower.getId());
+        dto.setName(borrower.getName());
+        dto.setEmail(borrower.getEmail());
+        dto.setMembershipType(borrower.getMembershipType());
+        dto.setMaxBorrowLimit(borrower.getMaxBorrowLimit());
+        return dto;
+    }
+
+}
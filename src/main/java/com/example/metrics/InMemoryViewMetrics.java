@@ -0,0 +1,33 @@
+package com.example.metrics;
+
+import com.example.cache.FinePolicyCache;
+import com.example.search.CatalogSearchIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+// Hit/miss counters of the hand-rolled caches; Hibernate's regions are covered by hibernate-micrometer
+@Component
+@RequiredArgsConstructor
+public class InMemoryViewMetrics implements MeterBinder {
+
+    private final FinePolicyCache finePolicyCache;
+    private final CatalogSearchIndex catalogSearchIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("library.cache.requests", finePolicyCache, FinePolicyCache::getHits)
+                .tags("cache", "fine-policies", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("library.cache.requests", finePolicyCache, FinePolicyCache::getMisses)
+                .tags("cache", "fine-policies", "result", "miss")
+                .register(registry);
+        Gauge.builder("library.search.index.size", catalogSearchIndex, CatalogSearchIndex::size)
+                .description("Books in the in-process catalog search index")
+                .register(registry);
+    }
+
+}
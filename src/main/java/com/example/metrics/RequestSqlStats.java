@@ -0,0 +1,32 @@
+package com.example.metrics;
+
+// Statement count and time for one request; kept as a request attribute and bound to whichever thread is
+// running the request's work (SqlBudgetFilter, or SqlStatsCallableInterceptor for streaming responses)
+final class RequestSqlStats {
+
+    static final String ATTRIBUTE = RequestSqlStats.class.getName();
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    final String request;
+    // Written by one thread at a time; the async hand-offs in between order the writes
+    volatile int statements;
+    volatile long elapsedMillis;
+
+    RequestSqlStats(String request) {
+        this.request = request;
+    }
+
+    static void bind(RequestSqlStats stats) {
+        CURRENT.set(stats);
+    }
+
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import org.hibernate.engine.spi.SessionEventListener;
+
+// Hibernate creates one of these per session (hibernate.session.events.auto), so the counts below are
+// per session, which with open-in-view is per request. Outside Spring, hence the global registry.
+public class SessionStatementMetrics implements SessionEventListener {
+
+    private static final DistributionSummary STATEMENTS = DistributionSummary
+            .builder("library.hibernate.session.statements")
+            .description("JDBC statements executed per Hibernate session")
+            .register(Metrics.globalRegistry);
+
+    private static final DistributionSummary BATCHES = DistributionSummary
+            .builder("library.hibernate.session.batches")
+            .description("JDBC batches executed per Hibernate session")
+            .register(Metrics.globalRegistry);
+
+    private int statements;
+    private int batches;
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statements++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        batches++;
+    }
+
+    @Override
+    public void end() {
+        if (statements > 0 || batches > 0) {
+            STATEMENTS.record(statements);
+            BATCHES.record(batches);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.example.metrics;
+
+import com.example.config.SqlInstrumentationProperties;
+import com.example.exception.SqlBudgetExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Opens the per-request statement counter and, once the handler is known, records it against the endpoint.
+// Streaming (async) responses run their SQL on another thread and come back through an async dispatch,
+// so the counter lives in a request attribute and is recorded only when the response is finished.
+class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger("library.sql");
+
+    private final SqlInstrumentationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    SqlBudgetFilter(SqlInstrumentationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = (RequestSqlStats) request.getAttribute(RequestSqlStats.ATTRIBUTE);
+        if (stats == null) {
+            stats = new RequestSqlStats(request.getMethod() + " " + request.getRequestURI());
+            request.setAttribute(RequestSqlStats.ATTRIBUTE, stats);
+        }
+
+        RequestSqlStats.bind(stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.clear();
+        }
+
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern == null ? "UNMAPPED" : pattern.toString();
+        record(request.getMethod(), endpoint, stats);
+        checkBudget(request.getMethod(), endpoint, stats);
+    }
+
+    private void record(String method, String endpoint, RequestSqlStats stats) {
+        DistributionSummary.builder("library.sql.statements.per.request")
+                .tags("method", method, "uri", endpoint)
+                .register(meterRegistry)
+                .record(stats.statements);
+        Timer.builder("library.sql.time.per.request")
+                .tags("method", method, "uri", endpoint)
+                .register(meterRegistry)
+                .record(stats.elapsedMillis, TimeUnit.MILLISECONDS);
+
+        if (properties.getSampleRate() > 0 && ThreadLocalRandom.current().nextDouble() < properties.getSampleRate()) {
+            log.info("sql_summary method={} uri={} request=\"{}\" statements={} elapsed_ms={}",
+                    method, endpoint, stats.request, stats.statements, stats.elapsedMillis);
+        }
+    }
+
+    // The response is already committed here, so a violation is reported (log and counter); strict mode also
+    // throws so that a test driving the request through MockMvc fails
+    private void checkBudget(String method, String endpoint, RequestSqlStats stats) {
+        int budget = properties.budgetFor(endpoint);
+        if (budget <= 0 || stats.statements <= budget) {
+            return;
+        }
+        meterRegistry.counter("library.sql.budget.exceeded", "method", method, "uri", endpoint).increment();
+        log.warn("sql_budget_exceeded method={} uri={} statements={} budget={}",
+                method, endpoint, stats.statements, budget);
+        if (properties.isFailOnBudgetExceeded()) {
+            throw new SqlBudgetExceededException(method + " " + endpoint + " ran " + stats.statements
+                    + " SQL statements, over its budget of " + budget);
+        }
+    }
+
+}
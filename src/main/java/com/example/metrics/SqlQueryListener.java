@@ -0,0 +1,56 @@
+package com.example.metrics;
+
+import com.example.config.SqlInstrumentationProperties;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Runs after every JDBC execution: adds to the current request's totals and logs slow statements
+class SqlQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger("library.sql");
+
+    private final SqlInstrumentationProperties properties;
+
+    SqlQueryListener(SqlInstrumentationProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.statements++;
+            stats.elapsedMillis += execInfo.getElapsedTime();
+        }
+
+        if (execInfo.getElapsedTime() >= properties.getSlowQueryThreshold().toMillis()) {
+            String request = stats != null ? stats.request : "thread " + Thread.currentThread().getName();
+            for (QueryInfo query : queryInfoList) {
+                log.warn("slow_query request=\"{}\" elapsed_ms={} batch={} sql=\"{}\" params={}",
+                        request, execInfo.getElapsedTime(), execInfo.isBatch(), query.getQuery(),
+                        describeParameters(query));
+            }
+        }
+    }
+
+    private String describeParameters(QueryInfo query) {
+        return query.getParametersList().stream()
+                .map(parameters -> parameters.stream()
+                        .map(ParameterSetOperation::getArgs)
+                        .map(args -> args.length > 1 ? String.valueOf(args[1]) : "?")
+                        .collect(Collectors.joining(", ", "[", "]")))
+                .collect(Collectors.joining(", "));
+    }
+
+}
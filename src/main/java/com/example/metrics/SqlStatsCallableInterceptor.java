@@ -0,0 +1,26 @@
+package com.example.metrics;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+
+// StreamingResponseBody (the NDJSON endpoints) runs as a Callable on the MVC async executor: bind the
+// request's counter there so the statements it streams are counted too
+class SqlStatsCallableInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        Object stats = request.getAttribute(RequestSqlStats.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (stats instanceof RequestSqlStats requestStats) {
+            RequestSqlStats.bind(requestStats);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RequestSqlStats.clear();
+    }
+
+}
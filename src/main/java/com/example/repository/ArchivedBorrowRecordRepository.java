@@ -0,0 +1,52 @@
+package com.example.repository;
+
+import com.example.dto.BorrowRecordDTO;
+import com.example.entity.ArchivedBorrowRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Same projections as BorrowRecordRepository so callers can combine both tiers; archived rows are never active.
+// Per-book totals across both tiers are BorrowRecordRepository.findTopBorrowedBooks
+@Repository
+public interface ArchivedBorrowRecordRepository extends JpaRepository<ArchivedBorrowRecord, UUID> {
+
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(a.id, b.id, b.title, bw.id, bw.name, " +
+            "a.borrowDate, a.dueDate, a.returnDate, a.fineAmount, false) " +
+            "FROM ArchivedBorrowRecord a JOIN Book b ON b.id = a.bookId JOIN Borrower bw ON bw.id = a.borrowerId " +
+            "WHERE a.borrowerId = :borrowerId")
+    List<BorrowRecordDTO> findRecordDTOsByBorrowerId(@Param("borrowerId") UUID borrowerId);
+
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(a.id, b.id, b.title, bw.id, bw.name, " +
+            "a.borrowDate, a.dueDate, a.returnDate, a.fineAmount, false) " +
+            "FROM ArchivedBorrowRecord a JOIN Book b ON b.id = a.bookId JOIN Borrower bw ON bw.id = a.borrowerId " +
+            "WHERE a.borrowerId = :borrowerId AND a.id > :afterId " +
+            "ORDER BY a.id")
+    List<BorrowRecordDTO> findRecordDTOsByBorrowerIdAfter(@Param("borrowerId") UUID borrowerId,
+                                                          @Param("afterId") UUID afterId,
+                                                          Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(a.id, b.id, b.title, bw.id, bw.name, " +
+            "a.borrowDate, a.dueDate, a.returnDate, a.fineAmount, false) " +
+            "FROM ArchivedBorrowRecord a JOIN Book b ON b.id = a.bookId JOIN Borrower bw ON bw.id = a.borrowerId " +
+            "WHERE a.borrowerId = :borrowerId")
+    Stream<BorrowRecordDTO> streamRecordDTOsByBorrowerId(@Param("borrowerId") UUID borrowerId);
+
+    @Query("SELECT a.bookId, a.borrowDate, COUNT(a) " +
+            "FROM ArchivedBorrowRecord a " +
+            "WHERE a.borrowDate >= :since " +
+            "GROUP BY a.bookId, a.borrowDate")
+    List<Object[]> countBorrowsPerBookAndDay(@Param("since") LocalDate since);
+
+}
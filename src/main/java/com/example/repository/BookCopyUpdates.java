@@ -0,0 +1,28 @@
+package com.example.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+// Copy counters change on every borrow/return; see BookCopyUpdatesImpl for why these bypass JPQL
+public interface BookCopyUpdates {
+
+    // Conditional decrement: succeeds only while a copy is left, so concurrent borrows can never oversell
+    int reserveCopy(UUID id);
+
+    int releaseCopy(UUID id);
+
+    // Adds copies to the shelf and the total alike; 0 if the result would go negative
+    int addCopies(UUID id, int copies);
+
+    // Batched addCopies for the bulk import. Each entry also requires the deleted flag the caller read, so a
+    // book deleted or restored meanwhile is left alone; returns the update count per entry, in order.
+    int[] addCopies(List<CopyAddition> additions);
+
+    // Sets the total and moves the available count by the same difference, computed in the database.
+    // Returns 0 when the new total is below the number of copies currently on loan.
+    int setTotalCopies(UUID id, int totalCopies);
+
+    record CopyAddition(UUID id, int copies, boolean deleted) {
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.example.repository;
+
+import com.example.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+// A JPQL bulk update makes Hibernate drop the whole books cache region, so the counters are updated
+// through JDBC and only the touched entry is evicted, once the transaction has ended (see CacheEviction)
+@RequiredArgsConstructor
+class BookCopyUpdatesImpl implements BookCopyUpdates {
+
+    private static final String ADD_COPIES_SQL =
+            "UPDATE books SET available_copies = available_copies + ?, total_copies = total_copies + ?, " +
+                    "is_available = CASE WHEN available_copies + ? > 0 THEN TRUE ELSE FALSE END " +
+                    "WHERE id = ? AND available_copies + ? >= 0 AND total_copies + ? >= 0";
+    private static final String ADD_COPIES_IF_DELETED_IS_SQL = ADD_COPIES_SQL + " AND deleted = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public int reserveCopy(UUID id) {
+        int updated = jdbcTemplate.update(
+                "UPDATE books SET available_copies = available_copies - 1, " +
+                        "is_available = CASE WHEN available_copies > 1 THEN TRUE ELSE FALSE END " +
+                        "WHERE id = ? AND deleted = FALSE AND available_copies > 0", id);
+        evict(id, updated);
+        return updated;
+    }
+
+    @Override
+    public int releaseCopy(UUID id) {
+        int updated = jdbcTemplate.update(
+                "UPDATE books SET available_copies = available_copies + 1, is_available = TRUE " +
+                        "WHERE id = ? AND available_copies < total_copies", id);
+        evict(id, updated);
+        return updated;
+    }
+
+    @Override
+    public int addCopies(UUID id, int copies) {
+        int updated = jdbcTemplate.update(ADD_COPIES_SQL, copies, copies, copies, id, copies, copies);
+        evict(id, updated);
+        return updated;
+    }
+
+    @Override
+    public int[] addCopies(List<CopyAddition> additions) {
+        if (additions.isEmpty()) {
+            return new int[0];
+        }
+        int[][] batches = jdbcTemplate.batchUpdate(ADD_COPIES_IF_DELETED_IS_SQL, additions, additions.size(),
+                (statement, addition) -> {
+                    int copies = addition.copies();
+                    statement.setInt(1, copies);
+                    statement.setInt(2, copies);
+                    statement.setInt(3, copies);
+                    statement.setObject(4, addition.id());
+                    statement.setInt(5, copies);
+                    statement.setInt(6, copies);
+                    statement.setBoolean(7, addition.deleted());
+                });
+        int[] updated = Arrays.stream(batches).flatMapToInt(Arrays::stream).toArray();
+        for (int i = 0; i < updated.length; i++) {
+            // Drivers may answer SUCCESS_NO_INFO (negative) instead of a row count
+            evict(additions.get(i).id(), updated[i] == 0 ? 0 : 1);
+        }
+        return updated;
+    }
+
+    @Override
+    public int setTotalCopies(UUID id, int totalCopies) {
+        int updated = jdbcTemplate.update(
+                "UPDATE books SET available_copies = available_copies + (? - total_copies), total_copies = ?, " +
+                        "is_available = CASE WHEN available_copies + (? - total_copies) > 0 THEN TRUE ELSE FALSE END " +
+                        "WHERE id = ? AND available_copies + (? - total_copies) >= 0",
+                totalCopies, totalCopies, totalCopies, id, totalCopies);
+        evict(id, updated);
+        return updated;
+    }
+
+    private void evict(UUID id, int updated) {
+        if (updated > 0) {
+            CacheEviction.afterCompletion(entityManagerFactory, Book.class, id);
+        }
+    }
+
+}
@@ -1,41 +1,95 @@
 package com.example.repository;
 
 import com.example.entity.Book;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, UUID> {
+public interface BookRepository extends JpaRepository<Book, UUID>, BookCopyUpdates {
 
+    // Query cache only for finders that do not filter on the copy counters: BookCopyUpdates changes those
+    // through JDBC, which the query cache's table timestamps never see
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Book> findByTitleAndAuthor(String title, String author);
 
+    // Row lock for edits that need the copy counts to stay put until commit (reserveCopy waits on it)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") UUID id);
+
+    List<Book> findByTitleInAndAuthorIn(Collection<String> titles, Collection<String> authors);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Book> findByDeletedFalse(Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Book> findByCategoryAndDeletedFalse(String category, Pageable pageable);
 
     Page<Book> findByIsAvailableTrueAndDeletedFalse(Pageable pageable);
 
     Page<Book> findByCategoryAndIsAvailableTrueAndDeletedFalse(String category, Pageable pageable);
 
-    List<Book> findByCategoryAndDeletedFalseAndIdNot(String category, UUID excludeId);
+    // Keyset variants: Spring Data appends the id to the sort and seeks past the last row, no count query
+    Window<Book> findByDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Book> findByCategoryAndDeletedFalse(String category, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Book> findByIsAvailableTrueAndDeletedFalse(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Book> findByCategoryAndIsAvailableTrueAndDeletedFalse(String category, ScrollPosition position,
+                                                                 Sort sort, Limit limit);
+
+    // Bounded candidate lists for the similarity job; only ids are needed for scoring
+    @Query("SELECT b.id FROM Book b WHERE b.author = :author AND b.deleted = false AND b.id <> :excludeId")
+    List<UUID> findIdsByAuthor(@Param("author") String author, @Param("excludeId") UUID excludeId,
+                               Pageable pageable);
+
+    @Query("SELECT b.id FROM Book b WHERE b.category = :category AND b.deleted = false AND b.id <> :excludeId")
+    List<UUID> findIdsByCategory(@Param("category") String category, @Param("excludeId") UUID excludeId,
+                                 Pageable pageable);
 
-    List<Book> findByAuthorAndDeletedFalseAndIdNot(String author, UUID excludeId);
+    @Query("SELECT b.id, b.author, b.category FROM Book b " +
+            "WHERE b.deleted = false AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findSimilaritySourcesAfter(@Param("afterId") UUID afterId, Pageable pageable);
 
     @Query("SELECT b.category as category, " +
             "SUM(b.availableCopies) as available, " +
-            "SUM(b.totalCopies) as total " +
+            "SUM(b.totalCopies) as total, " +
+            "COUNT(b) as books " +
             "FROM Book b WHERE b.deleted = false " +
             "GROUP BY b.category")
     List<Object[]> getAvailabilitySummary();
 
+    // Lightweight rows for the in-process search index; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id, b.title, b.author, b.category FROM Book b WHERE b.deleted = false")
+    Stream<Object[]> streamCatalogEntries();
 
+    // Title, author and copy count feed the autocomplete weights; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.title, b.author, b.totalCopies FROM Book b WHERE b.deleted = false")
+    Stream<Object[]> streamSuggestionSources();
 
+    @Query("SELECT b.deleted FROM Book b WHERE b.id = :id")
+    Optional<Boolean> findDeletedById(@Param("id") UUID id);
 
 }
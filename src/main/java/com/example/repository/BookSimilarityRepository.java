@@ -0,0 +1,32 @@
+package com.example.repository;
+
+import com.example.entity.Book;
+import com.example.entity.BookSimilarity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BookSimilarityRepository extends JpaRepository<BookSimilarity, UUID> {
+
+    // Served from the (book_id, neighbor_rank) index; books deleted since the last refresh are skipped
+    @Query("SELECT b FROM BookSimilarity s JOIN Book b ON b.id = s.similarBookId " +
+            "WHERE s.bookId = :bookId AND s.neighborRank >= 0 AND b.deleted = false " +
+            "ORDER BY s.neighborRank")
+    List<Book> findSimilarBooks(@Param("bookId") UUID bookId, Pageable pageable);
+
+    // True once the book has been computed, through its marker row even when it has no neighbours
+    boolean existsByBookId(UUID bookId);
+
+    @Modifying
+    @Query("DELETE FROM BookSimilarity s WHERE s.bookId IN :bookIds")
+    int deleteNeighbors(@Param("bookIds") Collection<UUID> bookIds);
+
+}
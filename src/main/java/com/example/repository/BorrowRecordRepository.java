@@ -2,14 +2,25 @@ package com.example.repository;
 
 
 
+import com.example.dto.BorrowRecordDTO;
 import com.example.entity.BorrowRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, UUID> {
@@ -23,26 +34,126 @@ public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, UUID
 
     List<BorrowRecord> findByActiveTrueAndReturnDateIsNull();
 
-    @Query("SELECT br.book.id as bookId, br.book.title as title, " +
-            "COUNT(br) as borrowCount " +
+    @Query("SELECT br FROM BorrowRecord br JOIN FETCH br.book " +
+            "WHERE br.borrower.id = :borrowerId AND br.book.id IN :bookIds " +
+            "AND br.active = true AND br.returnDate IS NULL")
+    List<BorrowRecord> findActiveByBorrowerIdAndBookIds(@Param("borrowerId") UUID borrowerId,
+                                                        @Param("bookIds") Collection<UUID> bookIds);
+
+    boolean existsByBookIdAndActiveTrueAndReturnDateIsNull(UUID bookId);
+
+    // Closes a loan only if it is still open: of two concurrent returns of the same loan exactly one gets 1
+    @Modifying
+    @Query("UPDATE BorrowRecord br SET br.active = false, br.returnDate = :returnDate, br.fineAmount = :fineAmount " +
+            "WHERE br.id = :id AND br.active = true")
+    int closeIfActive(@Param("id") UUID id, @Param("returnDate") LocalDate returnDate,
+                      @Param("fineAmount") BigDecimal fineAmount);
+
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(br.id, b.id, b.title, bw.id, bw.name, " +
+            "br.borrowDate, br.dueDate, br.returnDate, br.fineAmount, br.active) " +
+            "FROM BorrowRecord br JOIN br.book b JOIN br.borrower bw " +
+            "WHERE br.active = true AND br.returnDate IS NULL")
+    List<BorrowRecordDTO> findActiveRecordDTOs();
+
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(br.id, b.id, b.title, bw.id, bw.name, " +
+            "br.borrowDate, br.dueDate, br.returnDate, br.fineAmount, br.active) " +
+            "FROM BorrowRecord br JOIN br.book b JOIN br.borrower bw " +
+            "WHERE bw.id = :borrowerId")
+    List<BorrowRecordDTO> findRecordDTOsByBorrowerId(@Param("borrowerId") UUID borrowerId);
+
+    // Keyset pages ordered by id; callers pass a PageRequest of size + 1 and no count query is run
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(br.id, b.id, b.title, bw.id, bw.name, " +
+            "br.borrowDate, br.dueDate, br.returnDate, br.fineAmount, br.active) " +
+            "FROM BorrowRecord br JOIN br.book b JOIN br.borrower bw " +
+            "WHERE br.active = true AND br.returnDate IS NULL AND br.id > :afterId " +
+            "ORDER BY br.id")
+    List<BorrowRecordDTO> findActiveRecordDTOsAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(br.id, b.id, b.title, bw.id, bw.name, " +
+            "br.borrowDate, br.dueDate, br.returnDate, br.fineAmount, br.active) " +
+            "FROM BorrowRecord br JOIN br.book b JOIN br.borrower bw " +
+            "WHERE bw.id = :borrowerId AND br.id > :afterId " +
+            "ORDER BY br.id")
+    List<BorrowRecordDTO> findRecordDTOsByBorrowerIdAfter(@Param("borrowerId") UUID borrowerId,
+                                                          @Param("afterId") UUID afterId,
+                                                          Pageable pageable);
+
+    // Streams must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(br.id, b.id, b.title, bw.id, bw.name, " +
+            "br.borrowDate, br.dueDate, br.returnDate, br.fineAmount, br.active) " +
+            "FROM BorrowRecord br JOIN br.book b JOIN br.borrower bw " +
+            "WHERE br.active = true AND br.returnDate IS NULL")
+    Stream<BorrowRecordDTO> streamActiveRecordDTOs();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.dto.BorrowRecordDTO(br.id, b.id, b.title, bw.id, bw.name, " +
+            "br.borrowDate, br.dueDate, br.returnDate, br.fineAmount, br.active) " +
+            "FROM BorrowRecord br JOIN br.book b JOIN br.borrower bw " +
+            "WHERE bw.id = :borrowerId")
+    Stream<BorrowRecordDTO> streamRecordDTOsByBorrowerId(@Param("borrowerId") UUID borrowerId);
+
+    // Both tiers (borrow_records and borrow_records_archive) are counted per book and summed in the database,
+    // so the page limit applies to the combined counts; native because JPQL has no UNION ALL derived table
+    @Query(value = "SELECT t.book_id, b.title, SUM(t.borrows) AS borrow_count FROM (" +
+            "SELECT book_id, COUNT(*) AS borrows FROM borrow_records GROUP BY book_id " +
+            "UNION ALL " +
+            "SELECT book_id, COUNT(*) AS borrows FROM borrow_records_archive GROUP BY book_id" +
+            ") t JOIN books b ON b.id = t.book_id " +
+            "GROUP BY t.book_id, b.title " +
+            "ORDER BY borrow_count DESC", nativeQuery = true)
+    List<Object[]> findTopBorrowedBooks(Pageable pageable);
+
+    @Query(value = "SELECT t.book_id, b.title, SUM(t.borrows) AS borrow_count FROM (" +
+            "SELECT book_id, COUNT(*) AS borrows FROM borrow_records WHERE borrow_date >= :since GROUP BY book_id " +
+            "UNION ALL " +
+            "SELECT book_id, COUNT(*) AS borrows FROM borrow_records_archive WHERE borrow_date >= :since " +
+            "GROUP BY book_id" +
+            ") t JOIN books b ON b.id = t.book_id " +
+            "GROUP BY t.book_id, b.title " +
+            "ORDER BY borrow_count DESC", nativeQuery = true)
+    List<Object[]> findTopBorrowedBooksSince(@Param("since") LocalDate since, Pageable pageable);
+
+    // Books taken out by the borrowers of :bookId, counted once per borrower. Both tiers on both sides, so
+    // archiving old loans does not thin out the neighbours; native for the UNION derived tables
+    @Query(value = "SELECT other.book_id, b.author, b.category, COUNT(DISTINCT other.borrower_id) AS borrowers FROM (" +
+            "SELECT book_id, borrower_id FROM borrow_records " +
+            "UNION ALL " +
+            "SELECT book_id, borrower_id FROM borrow_records_archive" +
+            ") other JOIN books b ON b.id = other.book_id " +
+            "WHERE other.borrower_id IN (" +
+            "SELECT borrower_id FROM borrow_records WHERE book_id = :bookId " +
+            "UNION " +
+            "SELECT borrower_id FROM borrow_records_archive WHERE book_id = :bookId" +
+            ") AND other.book_id <> :bookId AND b.deleted = false " +
+            "GROUP BY other.book_id, b.author, b.category " +
+            "ORDER BY borrowers DESC", nativeQuery = true)
+    List<Object[]> findCoBorrowedBooks(@Param("bookId") UUID bookId, Pageable pageable);
+
+    @Query("SELECT br.id FROM BorrowRecord br WHERE br.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT br.book.id, br.borrowDate, COUNT(br) " +
             "FROM BorrowRecord br " +
-            "GROUP BY br.book.id, br.book.title " +
-            "ORDER BY COUNT(br) DESC")
-    List<Object[]> findTopBorrowedBooks();
+            "WHERE br.borrowDate >= :since " +
+            "GROUP BY br.book.id, br.borrowDate")
+    List<Object[]> countBorrowsPerBookAndDay(@Param("since") LocalDate since);
 
-    @Query("SELECT br FROM BorrowRecord br " +
+    // One chunk of the overdue job: only the columns needed to compute fines, in id order for keyset resume
+    @Query("SELECT br.id, br.dueDate, b.category FROM BorrowRecord br JOIN br.book b " +
             "WHERE br.active = true AND br.returnDate IS NULL " +
-            "AND br.dueDate < CURRENT_DATE")
-    List<BorrowRecord> findOverdueRecords();
-
-    @Query("SELECT br.borrower.id as borrowerId, " +
-            "br.borrower.name as borrowerName, " +
-            "COUNT(br) as totalBorrowed, " +
-            "SUM(CASE WHEN br.returnDate IS NULL AND br.dueDate < CURRENT_DATE THEN 1 ELSE 0 END) as overdueCount, " +
-            "SUM(br.fineAmount) as totalFines " +
-            "FROM BorrowRecord br " +
-            "GROUP BY br.borrower.id, br.borrower.name")
-    List<Object[]> findBorrowerActivity();
+            "AND br.dueDate < :today AND br.id > :afterId " +
+            "ORDER BY br.id")
+    List<Object[]> findOverdueChunk(@Param("today") LocalDate today,
+                                    @Param("afterId") UUID afterId,
+                                    Pageable pageable);
+
+    // One chunk for the archival job; moved rows leave the table, so no keyset is needed between chunks
+    @Query("SELECT br.id, br.book.id, br.borrower.id, br.borrowDate, br.dueDate, br.returnDate, " +
+            "br.fineAmount, br.overdueFlagged FROM BorrowRecord br " +
+            "WHERE br.active = false AND br.returnDate < :cutoff")
+    List<Object[]> findArchivableChunk(@Param("cutoff") LocalDate cutoff, Pageable pageable);
+
 
 
 }
@@ -0,0 +1,67 @@
+package com.example.repository;
+
+import com.example.entity.BorrowerActivity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Repository
+public interface BorrowerActivityRepository extends JpaRepository<BorrowerActivity, UUID> {
+
+    Page<BorrowerActivity> findByTotalBorrowedGreaterThan(Long totalBorrowed, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE BorrowerActivity a SET a.totalBorrowed = a.totalBorrowed + :count " +
+            "WHERE a.borrowerId = :borrowerId")
+    int incrementBorrowed(@Param("borrowerId") UUID borrowerId, @Param("count") long count);
+
+    @Modifying
+    @Query("UPDATE BorrowerActivity a SET a.totalFines = a.totalFines + :fineDelta, " +
+            "a.overdueCount = CASE WHEN a.overdueCount >= :overdueReturned " +
+            "THEN a.overdueCount - :overdueReturned ELSE 0 END " +
+            "WHERE a.borrowerId = :borrowerId")
+    int recordReturn(@Param("borrowerId") UUID borrowerId,
+                     @Param("fineDelta") BigDecimal fineDelta,
+                     @Param("overdueReturned") long overdueReturned);
+
+    @Modifying
+    @Query("DELETE FROM BorrowerActivity")
+    int deleteAllActivity();
+
+    @Modifying
+    @Query("INSERT INTO BorrowerActivity (borrowerId, borrowerName, totalBorrowed, overdueCount, totalFines) " +
+            "SELECT b.id, b.name, COUNT(br), " +
+            "SUM(CASE WHEN br.id IS NOT NULL AND br.returnDate IS NULL AND br.dueDate < CURRENT_DATE THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(br.fineAmount), 0) " +
+            "FROM Borrower b LEFT JOIN b.borrowRecords br " +
+            "GROUP BY b.id, b.name")
+    int insertActivityFromBorrowRecords();
+
+    // Second half of a rebuild: archived loans are all returned, so they add to the totals but never to overdueCount
+    @Modifying
+    @Query("UPDATE BorrowerActivity a SET " +
+            "a.totalBorrowed = a.totalBorrowed + (SELECT COUNT(ar) FROM ArchivedBorrowRecord ar " +
+            "WHERE ar.borrowerId = a.borrowerId), " +
+            "a.totalFines = a.totalFines + (SELECT COALESCE(SUM(ar.fineAmount), 0) FROM ArchivedBorrowRecord ar " +
+            "WHERE ar.borrowerId = a.borrowerId)")
+    int addArchivedTotals();
+
+    // Overdue status changes with the calendar and fines accrue outside borrow/return, so both are recounted
+    @Modifying
+    @Query("UPDATE BorrowerActivity a SET " +
+            "a.overdueCount = (SELECT COUNT(br) FROM BorrowRecord br WHERE br.borrower.id = a.borrowerId " +
+            "AND br.active = true AND br.returnDate IS NULL AND br.dueDate < CURRENT_DATE), " +
+            "a.totalFines = (SELECT COALESCE(SUM(br.fineAmount), 0) FROM BorrowRecord br " +
+            "WHERE br.borrower.id = a.borrowerId) + " +
+            "(SELECT COALESCE(SUM(ar.fineAmount), 0) FROM ArchivedBorrowRecord ar " +
+            "WHERE ar.borrowerId = a.borrowerId)")
+    int refreshOverdueCountsAndFines();
+
+}
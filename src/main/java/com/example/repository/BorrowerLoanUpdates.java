@@ -0,0 +1,18 @@
+package com.example.repository;
+
+import java.util.UUID;
+
+// Loan counters change on every borrow/return; see BorrowerLoanUpdatesImpl for why these bypass JPQL
+public interface BorrowerLoanUpdates {
+
+    // Claims a loan slot only while the borrower is under the limit
+    int incrementActiveLoans(UUID id);
+
+    int decrementActiveLoans(UUID id);
+
+    // Batch variants: a whole checkout stack claims or frees its slots in one statement
+    int claimActiveLoans(UUID id, int count);
+
+    int releaseActiveLoans(UUID id, int count);
+
+}
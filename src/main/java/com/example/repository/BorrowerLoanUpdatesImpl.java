@@ -0,0 +1,56 @@
+package com.example.repository;
+
+import com.example.entity.Borrower;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+// Same approach as BookCopyUpdatesImpl: JDBC plus single-entry eviction keeps the borrowers region warm
+@RequiredArgsConstructor
+class BorrowerLoanUpdatesImpl implements BorrowerLoanUpdates {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public int incrementActiveLoans(UUID id) {
+        return claimActiveLoans(id, 1);
+    }
+
+    @Override
+    public int decrementActiveLoans(UUID id) {
+        int updated = jdbcTemplate.update(
+                "UPDATE borrowers SET active_loan_count = active_loan_count - 1 " +
+                        "WHERE id = ? AND active_loan_count > 0", id);
+        evict(id, updated);
+        return updated;
+    }
+
+    @Override
+    public int claimActiveLoans(UUID id, int count) {
+        int updated = jdbcTemplate.update(
+                "UPDATE borrowers SET active_loan_count = active_loan_count + ? " +
+                        "WHERE id = ? AND active_loan_count + ? <= max_borrow_limit", count, id, count);
+        evict(id, updated);
+        return updated;
+    }
+
+    @Override
+    public int releaseActiveLoans(UUID id, int count) {
+        int updated = jdbcTemplate.update(
+                "UPDATE borrowers SET active_loan_count = " +
+                        "CASE WHEN active_loan_count >= ? THEN active_loan_count - ? ELSE 0 END " +
+                        "WHERE id = ?", count, count, id);
+        evict(id, updated);
+        return updated;
+    }
+
+    private void evict(UUID id, int updated) {
+        if (updated > 0) {
+            CacheEviction.afterCompletion(entityManagerFactory, Borrower.class, id);
+        }
+    }
+
+}
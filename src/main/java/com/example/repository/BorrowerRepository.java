@@ -2,7 +2,9 @@ package com.example.repository;
 
 import com.example.entity.Borrower;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,7 +12,7 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface BorrowerRepository extends JpaRepository<Borrower, UUID> {
+public interface BorrowerRepository extends JpaRepository<Borrower, UUID>, BorrowerLoanUpdates {
 
     Optional<Borrower> findByEmail(String email);
 
@@ -19,5 +21,12 @@ public interface BorrowerRepository extends JpaRepository<Borrower, UUID> {
             "AND br.dueDate < CURRENT_DATE")
     List<Borrower> findBorrowersWithOverdueBooks();
 
+    // Bulk JPQL on purpose: it runs once at startup and Hibernate drops the borrowers region for it
+    @Modifying
+    @Query("UPDATE Borrower b SET b.activeLoanCount = " +
+            "(SELECT COUNT(br) FROM BorrowRecord br " +
+            "WHERE br.borrower.id = b.id AND br.active = true AND br.returnDate IS NULL)")
+    int reconcileActiveLoanCounts();
+
 
 }
@@ -0,0 +1,31 @@
+package com.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+// Second-level cache eviction for rows changed behind Hibernate's back. Evicting before commit is useless:
+// a reader can load the still-committed old row and cache it again before the commit. So the entry is
+// dropped once the transaction ends, on rollback too, since a load inside the writing transaction may
+// have cached its uncommitted row.
+final class CacheEviction {
+
+    private CacheEviction() {
+    }
+
+    static void afterCompletion(EntityManagerFactory entityManagerFactory, Class<?> entityClass, UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entityManagerFactory.getCache().evict(entityClass, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                entityManagerFactory.getCache().evict(entityClass, id);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.routing;
+
+import com.example.config.ReplicaProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+// Staleness policy: the replica is only used while it answers and its lag is within library.replica.max-lag
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate replica;
+    private final ReplicaProperties properties;
+
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, ReplicaProperties properties) {
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.properties = properties;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${library.replica.lag-check-interval:PT5S}")
+    public void check() {
+        boolean usable;
+        String reason = null;
+        try {
+            if (properties.getLagQuery() == null || properties.getLagQuery().isBlank()) {
+                replica.queryForObject("SELECT 1", Integer.class);
+                usable = true;
+            } else {
+                Double lagSeconds = replica.queryForObject(properties.getLagQuery(), Double.class);
+                usable = lagSeconds != null && lagSeconds * 1000 <= properties.getMaxLag().toMillis();
+                reason = "lag " + lagSeconds + "s, limit " + properties.getMaxLag();
+            }
+        } catch (RuntimeException ex) {
+            usable = false;
+            reason = ex.getMessage();
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Read replica is within the lag limit, routing read-only work to it");
+            } else {
+                log.warn("Read replica is unreachable or lagging ({}), routing all reads to the primary", reason);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+}
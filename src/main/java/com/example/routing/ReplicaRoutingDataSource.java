@@ -0,0 +1,41 @@
+package com.example.routing;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Picks the pool when a connection is actually needed; wrapped in a LazyConnectionDataSourceProxy so that
+// happens after the transaction's read-only flag is known
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> REPLICA_REQUESTED = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    static void requestReplica() {
+        REPLICA_REQUESTED.set(Boolean.TRUE);
+    }
+
+    static void clearRequest() {
+        REPLICA_REQUESTED.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnlyTransaction = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        boolean writeTransaction = TransactionSynchronizationManager.isActualTransactionActive() && !readOnlyTransaction;
+        boolean wantsReplica = readOnlyTransaction || Boolean.TRUE.equals(REPLICA_REQUESTED.get());
+
+        if (writeTransaction || !wantsReplica || !lagMonitor.isReplicaUsable()) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.routing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+// Marks requests to @ReadFromReplica handlers so their queries route to the replica even outside a transaction
+public class ReplicaRoutingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method
+                && (AnnotatedElementUtils.hasAnnotation(method.getBeanType(), ReadFromReplica.class)
+                || method.hasMethodAnnotation(ReadFromReplica.class))) {
+            ReplicaRoutingDataSource.requestReplica();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReplicaRoutingDataSource.clearRequest();
+    }
+
+}
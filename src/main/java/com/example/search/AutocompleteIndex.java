@@ -0,0 +1,290 @@
+package com.example.search;
+
+import com.example.cache.AfterCommit;
+import com.example.dto.SuggestionDTO;
+import com.example.repository.BookRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+// As-you-type suggestions for titles and authors. Entries are packed into one sorted UTF-8 blob; lookups
+// binary-search the prefix range; short prefixes are answered from precomputed top lists and longer ones
+// from a range-max tree over the weights, so no lookup walks the entries of its range.
+@Component
+public class AutocompleteIndex {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final byte TITLE = 0;
+    private static final byte AUTHOR = 1;
+    private static final int PRECOMPUTED_PREFIX_LENGTH = 3;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public AutocompleteIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Synchronized so concurrent rebuilds (startup, the scheduled check, benchmark seeding) publish in the
+    // order they read: otherwise a slower rebuild that read earlier could replace a newer snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, Long> titles = new HashMap<>();
+        Map<String, Long> authors = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = bookRepository.streamSuggestionSources()) {
+                rows.forEach(row -> {
+                    titles.merge((String) row[0], ((Number) row[2]).longValue(), Long::sum);
+                    authors.merge((String) row[1], 1L, Long::sum);
+                });
+            }
+        });
+        snapshot.set(Snapshot.build(titles, authors));
+    }
+
+    // Writers only flag the index once they commit; the scheduled check below rebuilds off the request path
+    public void markDirty() {
+        AfterCommit.run(() -> dirty.set(true));
+    }
+
+    @Scheduled(fixedDelayString = "${library.autocomplete.rebuild-interval:PT30S}")
+    public void rebuildIfDirty() {
+        if (dirty.getAndSet(false)) {
+            rebuild();
+        }
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        return snapshot.get().suggest(prefix.trim(), Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY =
+                new Snapshot(new byte[0], new int[1], new int[0], new byte[0], new int[0], Map.of());
+
+        private final byte[] blob;
+        private final int[] offsets;
+        private final int[] weights;
+        private final byte[] types;
+        // Bottom-up segment tree of entry indexes: leaves at [n, 2n), each parent holds the heavier child
+        private final int[] maxTree;
+        private final Map<String, int[]> topByShortPrefix;
+
+        private Snapshot(byte[] blob, int[] offsets, int[] weights, byte[] types, int[] maxTree,
+                         Map<String, int[]> topByShortPrefix) {
+            this.blob = blob;
+            this.offsets = offsets;
+            this.weights = weights;
+            this.types = types;
+            this.maxTree = maxTree;
+            this.topByShortPrefix = topByShortPrefix;
+        }
+
+        private static Snapshot build(Map<String, Long> titles, Map<String, Long> authors) {
+            List<Entry> entries = new ArrayList<>(titles.size() + authors.size());
+            titles.forEach((text, weight) -> entries.add(new Entry(text, TITLE, saturate(weight))));
+            authors.forEach((text, weight) -> entries.add(new Entry(text, AUTHOR, saturate(weight))));
+            entries.sort(Comparator.comparing(Entry::text, String.CASE_INSENSITIVE_ORDER));
+
+            int size = entries.size();
+            ByteArrayOutputStream packed = new ByteArrayOutputStream(size * 24);
+            int[] offsets = new int[size + 1];
+            int[] weights = new int[size];
+            byte[] types = new byte[size];
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries.get(i);
+                packed.writeBytes(entry.text().getBytes(StandardCharsets.UTF_8));
+                offsets[i + 1] = packed.size();
+                weights[i] = entry.weight();
+                types[i] = entry.type();
+            }
+
+            // Entries sharing a folded prefix are contiguous, so each prefix group is one linear pass
+            Map<String, int[]> topByShortPrefix = new HashMap<>();
+            for (int length = 1; length <= PRECOMPUTED_PREFIX_LENGTH; length++) {
+                int start = 0;
+                while (start < size) {
+                    String text = entries.get(start).text();
+                    if (text.length() < length) {
+                        start++;
+                        continue;
+                    }
+                    String prefix = fold(text.substring(0, length));
+                    int end = start;
+                    while (end < size && fold(entries.get(end).text()).startsWith(prefix)) {
+                        end++;
+                    }
+                    topByShortPrefix.put(prefix, topIndices(weights, start, end));
+                    start = end;
+                }
+            }
+
+            return new Snapshot(packed.toByteArray(), offsets, weights, types, buildMaxTree(weights), topByShortPrefix);
+        }
+
+        private List<SuggestionDTO> suggest(String prefix, int limit) {
+            if (prefix.isEmpty() || weights.length == 0) {
+                return List.of();
+            }
+
+            int[] top = topByShortPrefix.get(fold(prefix));
+            if (top == null && prefix.length() > PRECOMPUTED_PREFIX_LENGTH) {
+                top = topInRange(lowerBound(prefix), upperBound(prefix));
+            }
+            if (top == null) {
+                return List.of();
+            }
+
+            List<SuggestionDTO> suggestions = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && i < limit; i++) {
+                int index = top[i];
+                suggestions.add(new SuggestionDTO(text(index), types[index] == TITLE ? "TITLE" : "AUTHOR", weights[index]));
+            }
+            return suggestions;
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = weights.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (String.CASE_INSENSITIVE_ORDER.compare(text(mid), prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First entry past every text that starts with prefix (case-insensitively)
+        private int upperBound(String prefix) {
+            String bound = prefix + Character.MAX_VALUE;
+            int low = 0;
+            int high = weights.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (String.CASE_INSENSITIVE_ORDER.compare(text(mid), bound) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // Best-first split: take the heaviest entry of a range, then queue the ranges on either side of it.
+        // O(k log n) for k suggestions, whatever the size of the range.
+        private int[] topInRange(int start, int end) {
+            if (start >= end) {
+                return new int[0];
+            }
+            PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                    Comparator.<int[]>comparingInt(range -> weights[range[2]]).reversed()
+                            .thenComparingInt(range -> range[2]));
+            ranges.add(new int[]{start, end, heaviest(start, end)});
+
+            int[] top = new int[Math.min(MAX_SUGGESTIONS, end - start)];
+            for (int i = 0; i < top.length; i++) {
+                int[] range = ranges.poll();
+                int index = range[2];
+                top[i] = index;
+                if (range[0] < index) {
+                    ranges.add(new int[]{range[0], index, heaviest(range[0], index)});
+                }
+                if (index + 1 < range[1]) {
+                    ranges.add(new int[]{index + 1, range[1], heaviest(index + 1, range[1])});
+                }
+            }
+            return top;
+        }
+
+        // Index of the heaviest entry in the non-empty range [start, end)
+        private int heaviest(int start, int end) {
+            int n = weights.length;
+            int best = start;
+            for (int low = start + n, high = end + n; low < high; low >>= 1, high >>= 1) {
+                if ((low & 1) == 1) {
+                    best = heavier(weights, best, maxTree[low++]);
+                }
+                if ((high & 1) == 1) {
+                    best = heavier(weights, best, maxTree[--high]);
+                }
+            }
+            return best;
+        }
+
+        private static int[] buildMaxTree(int[] weights) {
+            int n = weights.length;
+            int[] tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = heavier(weights, tree[2 * i], tree[2 * i + 1]);
+            }
+            return tree;
+        }
+
+        // Ties go to the earlier entry, as in topIndices
+        private static int heavier(int[] weights, int a, int b) {
+            return weights[b] > weights[a] || (weights[b] == weights[a] && b < a) ? b : a;
+        }
+
+        private String text(int index) {
+            return new String(blob, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+        }
+
+        private static int[] topIndices(int[] weights, int start, int end) {
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Comparator.comparingInt(index -> weights[index]));
+            for (int i = start; i < end; i++) {
+                if (heap.size() < MAX_SUGGESTIONS) {
+                    heap.add(i);
+                } else if (weights[i] > weights[heap.peek()]) {
+                    heap.poll();
+                    heap.add(i);
+                }
+            }
+            int[] top = new int[heap.size()];
+            for (int i = top.length - 1; i >= 0; i--) {
+                top[i] = heap.poll();
+            }
+            return top;
+        }
+
+        private static String fold(String text) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        private static int saturate(long weight) {
+            return (int) Math.min(weight, Integer.MAX_VALUE);
+        }
+    }
+
+    private record Entry(String text, byte type, int weight) {
+    }
+
+}
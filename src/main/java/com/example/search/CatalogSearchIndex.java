@@ -0,0 +1,283 @@
+package com.example.search;
+
+import com.example.cache.AfterCommit;
+import com.example.dto.BookSearchResultDTO;
+import com.example.entity.Book;
+import com.example.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-process trigram index over title, author and category. Trigram overlap gives typo tolerance and the
+// start-of-word padding makes partial last words match as prefixes.
+@Component
+@RequiredArgsConstructor
+public class CatalogSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float AUTHOR_WEIGHT = 2f;
+    private static final float CATEGORY_WEIGHT = 1f;
+    private static final float MIN_SCORE = 0.5f;
+    private static final float PHRASE_BONUS = 1f;
+
+    private final BookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Doc ids are positions in this list; removed or replaced books leave a null tombstone
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<UUID, Integer> docIdsByBook = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private int tombstones;
+
+    // Score arrays are pooled rather than thread-local so request threads (virtual or not) don't each keep one
+    private final ConcurrentLinkedQueue<float[]> scoreBuffers = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            docIdsByBook.clear();
+            postings.clear();
+            tombstones = 0;
+            try (Stream<Object[]> rows = bookRepository.streamCatalogEntries()) {
+                rows.forEach(row -> addDocument(new Document((UUID) row[0], (String) row[1], (String) row[2], (String) row[3])));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called by writers inside their transaction; the index only changes once the write commits
+    public void sync(Book book) {
+        UUID bookId = book.getId();
+        String title = book.getTitle();
+        String author = book.getAuthor();
+        String category = book.getCategory();
+        boolean deleted = book.getDeleted();
+        AfterCommit.run(() -> {
+            if (deleted) {
+                remove(bookId);
+            } else {
+                index(bookId, title, author, category);
+            }
+        });
+    }
+
+    public void index(UUID bookId, String title, String author, String category) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(bookId);
+            addDocument(new Document(bookId, title, author, category));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID bookId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BookSearchResultDTO> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        Set<String> queryTrigrams = trigrams(normalizedQuery, false);
+        if (queryTrigrams.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            float[] scores = scoreBuffers.poll();
+            if (scores == null || scores.length < documents.size()) {
+                scores = new float[documents.size()];
+            }
+
+            // Accumulate weighted trigram overlap per document, remembering which slots to reset
+            float perTrigram = 1f / queryTrigrams.size();
+            Postings touched = new Postings();
+            for (String trigram : queryTrigrams) {
+                accumulate(postings.get("t" + trigram), scores, TITLE_WEIGHT * perTrigram, touched);
+                accumulate(postings.get("a" + trigram), scores, AUTHOR_WEIGHT * perTrigram, touched);
+                accumulate(postings.get("c" + trigram), scores, CATEGORY_WEIGHT * perTrigram, touched);
+            }
+
+            PriorityQueue<BookSearchResultDTO> best = new PriorityQueue<>(
+                    Comparator.comparingDouble(BookSearchResultDTO::getScore));
+            for (int i = 0; i < touched.size; i++) {
+                int docId = touched.docs[i];
+                float score = scores[docId];
+                scores[docId] = 0f;
+                Document document = documents.get(docId);
+                if (document == null || score < MIN_SCORE) {
+                    continue;
+                }
+                if (document.normalizedTitle.contains(normalizedQuery)
+                        || document.normalizedAuthor.contains(normalizedQuery)) {
+                    score += PHRASE_BONUS;
+                }
+                if (best.size() < limit) {
+                    best.add(document.toResult(score));
+                } else if (score > best.peek().getScore()) {
+                    best.poll();
+                    best.add(document.toResult(score));
+                }
+            }
+
+            List<BookSearchResultDTO> results = new ArrayList<>(best);
+            results.sort(Comparator.comparingDouble(BookSearchResultDTO::getScore).reversed()
+                    .thenComparing(BookSearchResultDTO::getTitle));
+
+            // Every touched slot was reset above, so the buffer goes back clean
+            scoreBuffers.offer(scores);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdsByBook.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void accumulate(Postings list, float[] scores, float weight, Postings touched) {
+        if (list == null) {
+            return;
+        }
+        for (int i = 0; i < list.size; i++) {
+            int docId = list.docs[i];
+            if (scores[docId] == 0f) {
+                touched.add(docId);
+            }
+            scores[docId] += weight;
+        }
+    }
+
+    private void addDocument(Document document) {
+        int docId = documents.size();
+        documents.add(document);
+        docIdsByBook.put(document.id, docId);
+        addPostings('t', document.normalizedTitle, docId);
+        addPostings('a', document.normalizedAuthor, docId);
+        addPostings('c', normalize(document.category), docId);
+    }
+
+    private void removeDocument(UUID bookId) {
+        Integer docId = docIdsByBook.remove(bookId);
+        if (docId != null) {
+            documents.set(docId, null);
+            tombstones++;
+            if (tombstones > 1024 && tombstones > documents.size() / 2) {
+                compact();
+            }
+        }
+    }
+
+    // Re-numbers the live documents so postings and the score buffers stop growing with churn
+    private void compact() {
+        List<Document> live = documents.stream().filter(document -> document != null).toList();
+        documents.clear();
+        docIdsByBook.clear();
+        postings.clear();
+        scoreBuffers.clear();
+        tombstones = 0;
+        live.forEach(this::addDocument);
+    }
+
+    private void addPostings(char field, String normalizedText, int docId) {
+        for (String trigram : trigrams(normalizedText, true)) {
+            postings.computeIfAbsent(field + trigram, key -> new Postings()).add(docId);
+        }
+    }
+
+    // Words are padded "$$word$"; the query's last word gets no end padding so it can match as a prefix
+    static Set<String> trigrams(String normalizedText, boolean indexing) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        if (normalizedText.isEmpty()) {
+            return trigrams;
+        }
+        String[] words = normalizedText.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            boolean complete = indexing || w < words.length - 1;
+            String padded = "$$" + words[w] + (complete ? "$" : "");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int docId) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = docId;
+        }
+    }
+
+    private static final class Document {
+        private final UUID id;
+        private final String title;
+        private final String author;
+        private final String category;
+        private final String normalizedTitle;
+        private final String normalizedAuthor;
+
+        private Document(UUID id, String title, String author, String category) {
+            this.id = id;
+            this.title = title;
+            this.author = author;
+            this.category = category;
+            this.normalizedTitle = normalize(title);
+            this.normalizedAuthor = normalize(author);
+        }
+
+        private BookSearchResultDTO toResult(float score) {
+            return new BookSearchResultDTO(id, title, author, category, score);
+        }
+    }
+
+}
@@ -0,0 +1,317 @@
+package com.example.service;
+
+import com.example.cache.AvailabilityCounters;
+import com.example.cache.CatalogVersion;
+import com.example.dto.BookDTO;
+import com.example.dto.BookImportErrorDTO;
+import com.example.dto.BookImportResultDTO;
+import com.example.entity.Book;
+import com.example.exception.InvalidRequestException;
+import com.example.repository.BookCopyUpdates.CopyAddition;
+import com.example.repository.BookRepository;
+import com.example.search.AutocompleteIndex;
+import com.example.search.CatalogSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Streams a catalog file from the request body and writes it in chunks with Hibernate JDBC batching
+@Service
+@RequiredArgsConstructor
+public class BookImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("title", "author", "category", "totalcopies");
+
+    private final BookRepository bookRepository;
+    private final AvailabilityCounters availabilityCounters;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final AutocompleteIndex autocompleteIndex;
+    private final CatalogVersion catalogVersion;
+    private final BookSimilarityService bookSimilarityService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${library.import.chunk-size:500}")
+    private int chunkSize;
+
+    public BookImportResultDTO importBooks(InputStream body, Format format) throws IOException {
+        long started = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvHeader = null;
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && csvHeader == null) {
+                    csvHeader = parseCsvHeader(line);
+                    continue;
+                }
+
+                progress.rowsRead++;
+                try {
+                    BookDTO bookDTO = format == Format.CSV ? parseCsvRow(line, csvHeader) : parseJsonRow(line);
+                    validate(bookDTO);
+                    chunk.add(new ImportRow(lineNumber, bookDTO));
+                } catch (InvalidRequestException | IOException ex) {
+                    progress.fail(lineNumber, ex.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, progress);
+        }
+
+        long durationMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        return new BookImportResultDTO(
+                progress.rowsRead,
+                progress.created,
+                progress.updated,
+                progress.failed,
+                durationMs,
+                progress.rowsRead * 1000.0 / durationMs,
+                progress.errors,
+                progress.failed > progress.errors.size()
+        );
+    }
+
+    // One transaction per chunk: a bad chunk is reported row by row and the import carries on
+    private void writeChunk(List<ImportRow> rows, ImportProgress progress) {
+        try {
+            ChunkCounts counts = transactionTemplate.execute(status -> mergeChunk(rows));
+            progress.created += counts.created();
+            progress.updated += counts.updated();
+            counts.unchangedLines().forEach(line ->
+                    progress.fail(line, "Book was deleted or restored during the import; no copies were added"));
+        } catch (RuntimeException ex) {
+            rows.forEach(row -> progress.fail(row.line(), "Chunk could not be written: " + ex.getMessage()));
+        }
+    }
+
+    private ChunkCounts mergeChunk(List<ImportRow> rows) {
+        // Rows repeating a (title, author) pair inside the chunk collapse into one write
+        Map<String, BookDTO> merged = new LinkedHashMap<>();
+        Map<String, List<Long>> linesByKey = new HashMap<>();
+        for (ImportRow row : rows) {
+            linesByKey.computeIfAbsent(key(row.book().getTitle(), row.book().getAuthor()), key -> new ArrayList<>())
+                    .add(row.line());
+            merged.merge(key(row.book().getTitle(), row.book().getAuthor()), row.book(), (first, next) -> {
+                first.setTotalCopies(first.getTotalCopies() + next.getTotalCopies());
+                return first;
+            });
+        }
+
+        // Batched lookup instead of one findByTitleAndAuthor per row; the IN lists over-match, so pairs are re-checked
+        Set<String> titles = new HashSet<>();
+        Set<String> authors = new HashSet<>();
+        merged.values().forEach(book -> {
+            titles.add(book.getTitle());
+            authors.add(book.getAuthor());
+        });
+        Map<String, Book> existing = new HashMap<>();
+        for (Book book : bookRepository.findByTitleInAndAuthorIn(titles, authors)) {
+            existing.putIfAbsent(key(book.getTitle(), book.getAuthor()), book);
+        }
+
+        List<Book> toSave = new ArrayList<>(merged.size());
+        List<CopyAddition> additions = new ArrayList<>();
+        List<Book> additionBooks = new ArrayList<>();
+        List<String> additionKeys = new ArrayList<>();
+        long created = 0;
+        for (Map.Entry<String, BookDTO> entry : merged.entrySet()) {
+            BookDTO bookDTO = entry.getValue();
+            Book book = existing.get(entry.getKey());
+
+            if (book != null) {
+                // Relative update in the database; the loaded counts may already be behind a borrow
+                additions.add(new CopyAddition(book.getId(), bookDTO.getTotalCopies(), book.getDeleted()));
+                additionBooks.add(book);
+                additionKeys.add(entry.getKey());
+            } else {
+                book = new Book();
+                book.setTitle(bookDTO.getTitle());
+                book.setAuthor(bookDTO.getAuthor());
+                book.setCategory(bookDTO.getCategory());
+                book.setTotalCopies(bookDTO.getTotalCopies());
+                book.setAvailableCopies(bookDTO.getTotalCopies());
+                book.setIsAvailable(bookDTO.getTotalCopies() > 0);
+                book.setDeleted(false);
+                availabilityCounters.record(book.getCategory(), 1,
+                        book.getAvailableCopies(), book.getTotalCopies());
+                toSave.add(book);
+                created++;
+            }
+        }
+
+        bookRepository.saveAll(toSave);
+        entityManager.flush();
+
+        // An update count of 0 means the book's deleted flag changed since it was read: not imported
+        int[] addedCopies = bookRepository.addCopies(additions);
+        long updated = 0;
+        List<Long> unchangedLines = new ArrayList<>();
+        for (int i = 0; i < addedCopies.length; i++) {
+            CopyAddition addition = additions.get(i);
+            if (addedCopies[i] == 0) {
+                unchangedLines.addAll(linesByKey.get(additionKeys.get(i)));
+                continue;
+            }
+            if (!addition.deleted()) {
+                availabilityCounters.record(additionBooks.get(i).getCategory(), 0, addition.copies(), addition.copies());
+            }
+            bookSimilarityService.markStale(addition.id());
+            updated++;
+        }
+
+        toSave.forEach(book -> {
+            catalogSearchIndex.sync(book);
+            bookSimilarityService.markStale(book.getId());
+        });
+        autocompleteIndex.markDirty();
+        catalogVersion.bump();
+        entityManager.clear();
+        return new ChunkCounts(created, updated, unchangedLines);
+    }
+
+    private Map<String, Integer> parseCsvHeader(String line) {
+        List<String> columns = parseCsvLine(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.keySet().containsAll(CSV_COLUMNS)) {
+            throw new InvalidRequestException("CSV header must contain title, author, category and totalCopies");
+        }
+        return header;
+    }
+
+    private BookDTO parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> fields = parseCsvLine(line);
+        if (fields.size() < header.size()) {
+            throw new InvalidRequestException("Expected " + header.size() + " columns but found " + fields.size());
+        }
+
+        BookDTO bookDTO = new BookDTO();
+        bookDTO.setTitle(fields.get(header.get("title")).trim());
+        bookDTO.setAuthor(fields.get(header.get("author")).trim());
+        bookDTO.setCategory(fields.get(header.get("category")).trim());
+        try {
+            bookDTO.setTotalCopies(Integer.valueOf(fields.get(header.get("totalcopies")).trim()));
+        } catch (NumberFormatException ex) {
+            throw new InvalidRequestException("totalCopies must be a whole number");
+        }
+        return bookDTO;
+    }
+
+    private BookDTO parseJsonRow(String line) throws IOException {
+        return objectMapper.readValue(line, BookDTO.class);
+    }
+
+    // RFC 4180 style: commas inside double quotes are kept and "" is an escaped quote
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidRequestException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void validate(BookDTO bookDTO) {
+        if (bookDTO.getTotalCopies() == null) {
+            throw new InvalidRequestException("Total copies is required");
+        }
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(bookDTO);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static String key(String title, String author) {
+        return title + '\u0000' + author;
+    }
+
+    private record ImportRow(long line, BookDTO book) {
+    }
+
+    private record ChunkCounts(long created, long updated, List<Long> unchangedLines) {
+    }
+
+    private static final class ImportProgress {
+        private long rowsRead;
+        private long created;
+        private long updated;
+        private long failed;
+        private final List<BookImportErrorDTO> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BookImportErrorDTO(line, message));
+            }
+        }
+    }
+
+}
@@ -1,28 +1,58 @@
 package com.example.service;
 
+import com.example.cache.AvailabilityCounters;
+import com.example.cache.BorrowTrendTracker;
+import com.example.cache.CatalogVersion;
 import com.example.dto.AvailabilitySummaryDTO;
 import com.example.dto.BookDTO;
+import com.example.dto.BookSearchResultDTO;
+import com.example.dto.CursorPageDTO;
+import com.example.dto.SuggestionDTO;
 import com.example.entity.Book;
-import com.example.entity.BorrowRecord;
 import com.example.exception.BookNotFoundException;
+import com.example.exception.InvalidRequestException;
+import com.example.mapper.BookMapper;
 import com.example.repository.BookRepository;
 import com.example.repository.BorrowRecordRepository;
+import com.example.search.AutocompleteIndex;
+import com.example.search.CatalogSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.transaction.annotation.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed("library.service")
 public class BookService {
 
     private final BookRepository bookRepository;
     private final BorrowRecordRepository borrowRecordRepository;
+    private final AvailabilityCounters availabilityCounters;
+    private final BorrowTrendTracker borrowTrendTracker;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final AutocompleteIndex autocompleteIndex;
+    private final BookSimilarityService bookSimilarityService;
+    private final CatalogVersion catalogVersion;
+    private final BookMapper bookMapper;
+    private final EntityManager entityManager;
+
+    // Only columns backed by a (column, id) index on books
+    private static final Set<String> KEYSET_SORT_COLUMNS = Set.of("title", "author");
 
     @Transactional
     public BookDTO addOrUpdateBook(BookDTO bookDTO) {
@@ -31,10 +61,13 @@ public class BookService {
                 .orElse(null);
 
         if (book != null) {
-            // Increase total copies
-            book.setTotalCopies(book.getTotalCopies() + bookDTO.getTotalCopies());
-            book.setAvailableCopies(book.getAvailableCopies() + bookDTO.getTotalCopies());
-            book.setIsAvailable(true);
+            // Increase total copies relative to the current row, so a borrow committed meanwhile is kept
+            bookRepository.addCopies(book.getId(), bookDTO.getTotalCopies());
+            entityManager.refresh(book);
+            if (!book.getDeleted()) {
+                availabilityCounters.record(book.getCategory(), 0,
+                        bookDTO.getTotalCopies(), bookDTO.getTotalCopies());
+            }
         } else {
             // Create new book
             book = new Book();
@@ -45,10 +78,16 @@ public class BookService {
             book.setAvailableCopies(bookDTO.getTotalCopies());
             book.setIsAvailable(bookDTO.getTotalCopies() > 0);
             book.setDeleted(false);
+            availabilityCounters.record(book.getCategory(), 1,
+                    book.getAvailableCopies(), book.getTotalCopies());
         }
 
         book = bookRepository.save(book);
-        return convertToDTO(book);
+        catalogSearchIndex.sync(book);
+        autocompleteIndex.markDirty();
+        bookSimilarityService.markStale(book.getId());
+        catalogVersion.bump();
+        return bookMapper.toDTO(book);
     }
 
     public Page<BookDTO> getBooks(String category, Boolean available, Pageable pageable) {
@@ -64,100 +103,157 @@ public class BookService {
             books = bookRepository.findByDeletedFalse(pageable);
         }
 
-        return books.map(this::convertToDTO);
+        return books.map(bookMapper::toDTO);
+    }
+
+    public CursorPageDTO<BookDTO> getBooksKeyset(String category, Boolean available, String sortBy,
+                                                 String cursor, int size) {
+        if (!KEYSET_SORT_COLUMNS.contains(sortBy)) {
+            throw new InvalidRequestException("Keyset pagination supports sortBy " + KEYSET_SORT_COLUMNS);
+        }
+
+        ScrollPosition position = decodeBookCursor(sortBy, cursor);
+        Sort sort = Sort.by(sortBy).and(Sort.by("id"));
+        Limit limit = Limit.of(Cursors.checkSize(size));
+        Window<Book> books;
+
+        if (category != null && available != null && available) {
+            books = bookRepository.findByCategoryAndIsAvailableTrueAndDeletedFalse(category, position, sort, limit);
+        } else if (category != null) {
+            books = bookRepository.findByCategoryAndDeletedFalse(category, position, sort, limit);
+        } else if (available != null && available) {
+            books = bookRepository.findByIsAvailableTrueAndDeletedFalse(position, sort, limit);
+        } else {
+            books = bookRepository.findByDeletedFalse(position, sort, limit);
+        }
+
+        List<BookDTO> content = books.map(bookMapper::toDTO).getContent();
+        String nextCursor = null;
+        if (books.hasNext() && !content.isEmpty()) {
+            BookDTO last = content.get(content.size() - 1);
+            String sortValue = "title".equals(sortBy) ? last.getTitle() : last.getAuthor();
+            nextCursor = Cursors.encode(sortBy, sortValue, last.getId().toString());
+        }
+        return new CursorPageDTO<>(content, content.size(), books.hasNext(), nextCursor);
     }
 
     @Transactional
     public BookDTO updateBook(UUID id, BookDTO bookDTO) {
-        Book book = bookRepository.findById(id)
+        // Locked so the counts moved between categories below are exactly the ones in the row
+        Book book = bookRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
 
         if (book.getDeleted()) {
             throw new BookNotFoundException("Book has been deleted");
         }
 
+        int onLoan = book.getTotalCopies() - book.getAvailableCopies();
+        if (bookDTO.getTotalCopies() < onLoan) {
+            throw new IllegalStateException("Total copies cannot be lower than the " + onLoan + " copies on loan");
+        }
+
+        availabilityCounters.record(book.getCategory(), -1,
+                -book.getAvailableCopies(), -book.getTotalCopies());
+
         book.setTitle(bookDTO.getTitle());
         book.setAuthor(bookDTO.getAuthor());
         book.setCategory(bookDTO.getCategory());
+        book = bookRepository.saveAndFlush(book);
 
-        // Update copies
-        int difference = bookDTO.getTotalCopies() - book.getTotalCopies();
-        book.setTotalCopies(bookDTO.getTotalCopies());
-        book.setAvailableCopies(book.getAvailableCopies() + difference);
-        book.setIsAvailable(book.getAvailableCopies() > 0);
-
-        book = bookRepository.save(book);
-        return convertToDTO(book);
+        // Update copies: the available count moves by the same difference, guarded against going negative
+        if (bookRepository.setTotalCopies(id, bookDTO.getTotalCopies()) == 0) {
+            throw new IllegalStateException("Total copies cannot be lower than the copies on loan");
+        }
+        entityManager.refresh(book);
+        availabilityCounters.record(book.getCategory(), 1,
+                book.getAvailableCopies(), book.getTotalCopies());
+        borrowTrendTracker.renameBook(id, book.getTitle());
+
+        catalogSearchIndex.sync(book);
+        autocompleteIndex.markDirty();
+        bookSimilarityService.markStale(book.getId());
+        catalogVersion.bump();
+        return bookMapper.toDTO(book);
     }
 
     @Transactional
     public void deleteBook(UUID id) {
-        Book book = bookRepository.findById(id)
+        // Locked so no borrow can reserve a copy between the loan check and the delete (reserveCopy waits on
+        // the row and then skips it as deleted), and the counts subtracted below are the row's current ones
+        Book book = bookRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
 
-        // Checking  if there are any active borrow records
-        List<BorrowRecord> activeRecords = borrowRecordRepository
-                .findByActiveTrueAndReturnDateIsNull()
-                .stream()
-                .filter(record -> record.getBook().getId().equals(id))
-                .collect(Collectors.toList());
-
-        if (!activeRecords.isEmpty()) {
+        // Checking  if there are any active borrow records (index-only existence check)
+        if (borrowRecordRepository.existsByBookIdAndActiveTrueAndReturnDateIsNull(id)) {
             throw new IllegalStateException("Cannot delete book with active borrow records");
         }
 
+        if (!book.getDeleted()) {
+            availabilityCounters.record(book.getCategory(), -1,
+                    -book.getAvailableCopies(), -book.getTotalCopies());
+        }
+
         book.setDeleted(true);
         bookRepository.save(book);
+        catalogSearchIndex.sync(book);
+        autocompleteIndex.markDirty();
+        bookSimilarityService.markStale(book.getId());
+        catalogVersion.bump();
     }
 
     public List<BookDTO> getSimilarBooks(UUID id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + id));
 
-        // Finding books in same category or by same author
-        List<Book> similarBooks = bookRepository
-                .findByCategoryAndDeletedFalseAndIdNot(book.getCategory(), id);
-
-        if (similarBooks.size() < 5) {
-            List<Book> authorBooks = bookRepository
-                    .findByAuthorAndDeletedFalseAndIdNot(book.getAuthor(), id);
-            similarBooks.addAll(authorBooks);
-        }
-
-        return similarBooks.stream()
-                .distinct()
-                .limit(5)
-                .map(this::convertToDTO)
+        // Neighbours are precomputed by BookSimilarityService, so this is one indexed lookup
+        return bookSimilarityService.findSimilarBooks(book, 5).stream()
+                .map(bookMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
-    public List<AvailabilitySummaryDTO> getAvailabilitySummary() {
-        List<Object[]> results = bookRepository.getAvailabilitySummary();
-        return results.stream()
-                .map(row -> new AvailabilitySummaryDTO(
-                        (String) row[0],
-                        ((Number) row[1]).longValue(),
-                        ((Number) row[2]).longValue()
-                ))
-                .collect(Collectors.toList());
+    public List<BookSearchResultDTO> searchBooks(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query is required");
+        }
+        if (limit < 1 || limit > 100) {
+            throw new InvalidRequestException("Limit must be between 1 and 100");
+        }
+        return catalogSearchIndex.search(query, limit);
     }
 
-    private BookDTO convertToDTO(Book book) {
-        BookDTO dto = new BookDTO();
-        dto.setId(book.getId());
-        dto.setTitle(book.getTitle());
-        dto.setAuthor(book.getAuthor());
-        dto.setCategory(book.getCategory());
-        dto.setIsAvailable(book.getIsAvailable());
-        dto.setTotalCopies(book.getTotalCopies());
-        dto.setAvailableCopies(book.getAvailableCopies());
-        return dto;
+    public List<SuggestionDTO> autocomplete(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        if (limit < 1 || limit > AutocompleteIndex.MAX_SUGGESTIONS) {
+            throw new InvalidRequestException("Limit must be between 1 and " + AutocompleteIndex.MAX_SUGGESTIONS);
+        }
+        return autocompleteIndex.suggest(prefix, limit);
     }
 
+    // Served from the in-memory counters; AvailabilityCounters reconciles them with SQL periodically
+    public List<AvailabilitySummaryDTO> getAvailabilitySummary() {
+        return availabilityCounters.getSummary();
+    }
 
+    private ScrollPosition decodeBookCursor(String sortBy, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
 
+        String[] parts = Cursors.decode(cursor, 3);
+        if (!parts[0].equals(sortBy)) {
+            throw new InvalidRequestException("Cursor was issued for sortBy " + parts[0]);
+        }
 
-
-
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortBy, parts[1]);
+        try {
+            keys.put("id", UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
 
 }
@@ -0,0 +1,219 @@
+package com.example.service;
+
+import com.example.cache.AfterCommit;
+import com.example.cache.CatalogVersion;
+import com.example.entity.Book;
+import com.example.entity.BookSimilarity;
+import com.example.repository.BookRepository;
+import com.example.repository.BookSimilarityRepository;
+import com.example.repository.BorrowRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Neighbour lists combine co-borrowing with shared author and category, scored from bounded candidate queries
+@Service
+@RequiredArgsConstructor
+public class BookSimilarityService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookSimilarityService.class);
+
+    private static final int TOP_K = 10;
+    private static final int CANDIDATES = 50;
+    private static final int CHUNK_SIZE = 200;
+    private static final double CO_BORROW_WEIGHT = 1.0;
+    private static final double AUTHOR_WEIGHT = 0.6;
+    private static final double CATEGORY_WEIGHT = 0.3;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final BookSimilarityRepository bookSimilarityRepository;
+    private final BookRepository bookRepository;
+    private final BorrowRecordRepository borrowRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersion catalogVersion;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${library.similarity.recompute-on-startup:true}")
+    private boolean recomputeOnStartup;
+
+    // Books whose neighbours may have changed since the last refresh
+    private final Set<UUID> stale = ConcurrentHashMap.newKeySet();
+
+    // recomputeAll and refreshStale both delete and re-insert neighbour rows; run concurrently on the same
+    // book, both inserts could land after both deletes and leave the book with duplicate neighbours
+    private final ReentrantLock recomputeLock = new ReentrantLock();
+
+    // On the scheduler rather than the ready event's thread: about three queries per title would hold up
+    // every listener after this one. Until it finishes, lookups fall back to scoring on the fly.
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (recomputeOnStartup && bookSimilarityRepository.count() == 0) {
+            taskScheduler.schedule(this::recomputeAll, Instant.now());
+        }
+    }
+
+    @Scheduled(cron = "0 0 1 * * ?") // Nightly, picks up co-borrow changes on books that were not marked
+    public void recomputeAll() {
+        recomputeLock.lock();
+        try {
+            recomputeAllLocked();
+        } finally {
+            recomputeLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.similarity.refresh-interval:PT5M}")
+    public void refreshStale() {
+        if (stale.isEmpty()) {
+            return;
+        }
+        recomputeLock.lock();
+        try {
+            refreshStaleLocked();
+        } finally {
+            recomputeLock.unlock();
+        }
+    }
+
+    private void recomputeAllLocked() {
+        UUID afterId = FIRST_ID;
+        int books = 0;
+        while (true) {
+            UUID cursor = afterId;
+            List<Object[]> sources = bookRepository.findSimilaritySourcesAfter(cursor, PageRequest.of(0, CHUNK_SIZE));
+            if (sources.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                bookSimilarityRepository.deleteNeighbors(sources.stream()
+                        .map(source -> (UUID) source[0])
+                        .collect(Collectors.toList()));
+                insertNeighbors(sources);
+            });
+            books += sources.size();
+            afterId = (UUID) sources.get(sources.size() - 1)[0];
+        }
+        catalogVersion.bump();
+        log.info("Recomputed similar books for {} books", books);
+    }
+
+    private void refreshStaleLocked() {
+        List<UUID> ids = new ArrayList<>(stale);
+        stale.removeAll(ids);
+
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                // Deleted books just lose their rows
+                bookSimilarityRepository.deleteNeighbors(chunk);
+                insertNeighbors(bookRepository.findAllById(chunk).stream()
+                        .filter(book -> !book.getDeleted())
+                        .map(book -> new Object[]{book.getId(), book.getAuthor(), book.getCategory()})
+                        .collect(Collectors.toList()));
+            });
+        }
+        catalogVersion.bump();
+    }
+
+    public void markStale(UUID bookId) {
+        AfterCommit.run(() -> stale.add(bookId));
+    }
+
+    public List<Book> findSimilarBooks(Book book, int limit) {
+        List<Book> similar = bookSimilarityRepository.findSimilarBooks(book.getId(), PageRequest.of(0, limit));
+        if (!similar.isEmpty() || bookSimilarityRepository.existsByBookId(book.getId())) {
+            return similar;
+        }
+
+        // Not computed yet (e.g. a book added since the last refresh): score it now and persist on the next refresh
+        markStale(book.getId());
+        List<UUID> ids = rankNeighbors(book.getId(), book.getAuthor(), book.getCategory()).stream()
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Map<UUID, Book> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // sources rows are (id, author, category); callers clear the old rows first, inside the same transaction
+    private void insertNeighbors(List<Object[]> sources) {
+        List<BookSimilarity> rows = new ArrayList<>();
+        for (Object[] source : sources) {
+            UUID bookId = (UUID) source[0];
+            List<Map.Entry<UUID, Double>> neighbors = rankNeighbors(bookId, (String) source[1], (String) source[2]);
+            // Every computed book gets a marker row, so one with no neighbours is not rescored on each lookup
+            rows.add(new BookSimilarity(null, bookId, bookId, 0.0, BookSimilarity.COMPUTED_MARKER_RANK));
+            for (int rank = 0; rank < neighbors.size(); rank++) {
+                Map.Entry<UUID, Double> neighbor = neighbors.get(rank);
+                rows.add(new BookSimilarity(null, bookId, neighbor.getKey(), neighbor.getValue(), rank));
+            }
+        }
+        bookSimilarityRepository.saveAll(rows);
+    }
+
+    private List<Map.Entry<UUID, Double>> rankNeighbors(UUID bookId, String author, String category) {
+        Map<UUID, Double> scores = new HashMap<>();
+        PageRequest candidates = PageRequest.of(0, CANDIDATES);
+
+        // Co-borrow counts are normalised against the strongest pair so they stay comparable across books
+        List<Object[]> coBorrowed = borrowRecordRepository.findCoBorrowedBooks(bookId, candidates);
+        double maxCount = coBorrowed.isEmpty() ? 1 : ((Number) coBorrowed.get(0)[3]).doubleValue();
+        for (Object[] row : coBorrowed) {
+            double score = CO_BORROW_WEIGHT * ((Number) row[3]).doubleValue() / maxCount;
+            if (author.equals(row[1])) {
+                score += AUTHOR_WEIGHT;
+            }
+            if (category.equals(row[2])) {
+                score += CATEGORY_WEIGHT;
+            }
+            scores.put((UUID) row[0], score);
+        }
+        Set<UUID> scored = new HashSet<>(scores.keySet());
+
+        // Co-borrowed books already carry their author/category bonus; others earn it from the candidate lists
+        for (UUID id : bookRepository.findIdsByAuthor(author, bookId, candidates)) {
+            if (!scored.contains(id)) {
+                scores.merge(id, AUTHOR_WEIGHT, Double::sum);
+            }
+        }
+        for (UUID id : bookRepository.findIdsByCategory(category, bookId, candidates)) {
+            if (!scored.contains(id)) {
+                scores.merge(id, CATEGORY_WEIGHT, Double::sum);
+            }
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<UUID, Double>comparingByKey()))
+                .limit(TOP_K)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,154 @@
+package com.example.service;
+
+import com.example.cache.AfterCommit;
+import com.example.dto.ArchiveRunDTO;
+import com.example.repository.BorrowRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Moves returned loans older than the retention window from borrow_records to borrow_records_archive,
+// one chunk per transaction, so the hot table only holds open and recently returned loans
+@Service
+@RequiredArgsConstructor
+public class BorrowArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowArchiveService.class);
+
+    private static final String INSERT_ARCHIVE_SQL = "INSERT INTO borrow_records_archive " +
+            "(id, archive_month, book_id, borrower_id, borrow_date, due_date, return_date, fine_amount, overdue_flagged) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_HOT_SQL = "DELETE FROM borrow_records WHERE id = ?";
+
+    private final BorrowRecordRepository borrowRecordRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Whole months of returned loans kept in borrow_records
+    @Value("${library.archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${library.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ArchiveRunDTO lastRun;
+
+    // On PostgreSQL the archive is range-partitioned by archive_month (db/vendor/postgresql); months whose
+    // partition this instance has already seen committed, so the DDL runs once per month
+    private final Set<Integer> partitionedMonths = ConcurrentHashMap.newKeySet();
+    private volatile Boolean partitioned;
+
+    @Scheduled(cron = "0 0 2 * * ?") // Nightly, clear of the overdue job and the activity refresh
+    public void archiveNightly() {
+        ArchiveRunDTO run = archiveClosedRecords();
+        log.info("Archived {} borrow records returned before {} in {} chunks ({} ms)",
+                run.getRowsArchived(), run.getCutoff(), run.getChunks(), run.getDurationMs());
+    }
+
+    // Closed records are never updated again, and each chunk is moved atomically, so an interrupted
+    // run simply leaves the rest for the next one; no checkpoint is needed
+    public ArchiveRunDTO archiveClosedRecords() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Borrow record archival is already running");
+        }
+
+        try {
+            long started = System.nanoTime();
+            LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+            long archived = 0;
+            int chunks = 0;
+
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                if (moved == null || moved == 0) {
+                    break;
+                }
+                archived += moved;
+                chunks++;
+            }
+
+            lastRun = new ArchiveRunDTO(cutoff, archived, chunks,
+                    (System.nanoTime() - started) / 1_000_000, LocalDateTime.now());
+            return lastRun;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public ArchiveRunDTO getLastRun() {
+        return lastRun;
+    }
+
+    private int archiveChunk(LocalDate cutoff) {
+        List<Object[]> rows = borrowRecordRepository.findArchivableChunk(cutoff, PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        createMissingPartitions(rows);
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVE_SQL, rows, rows.size(), (statement, row) -> {
+            LocalDate borrowDate = (LocalDate) row[3];
+            statement.setObject(1, row[0]);
+            statement.setInt(2, archiveMonth(borrowDate));
+            statement.setObject(3, row[1]);
+            statement.setObject(4, row[2]);
+            statement.setObject(5, borrowDate);
+            statement.setObject(6, row[4]);
+            statement.setObject(7, row[5]);
+            statement.setBigDecimal(8, row[6] == null ? BigDecimal.ZERO : (BigDecimal) row[6]);
+            statement.setBoolean(9, Boolean.TRUE.equals(row[7]));
+        });
+        jdbcTemplate.batchUpdate(DELETE_HOT_SQL, rows, rows.size(),
+                (statement, row) -> statement.setObject(1, (UUID) row[0]));
+        return rows.size();
+    }
+
+    // Rows must never land in the default partition: a month partition cannot be created over rows it
+    // already holds. The DDL is transactional, so the month is only remembered once the chunk commits.
+    private void createMissingPartitions(List<Object[]> rows) {
+        if (!isPartitioned()) {
+            return;
+        }
+        rows.stream()
+                .map(row -> archiveMonth((LocalDate) row[3]))
+                .distinct()
+                .filter(month -> !partitionedMonths.contains(month))
+                .forEach(month -> {
+                    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS borrow_records_archive_" + month +
+                            " PARTITION OF borrow_records_archive" +
+                            " FOR VALUES FROM (" + month + ") TO (" + (month + 1) + ")");
+                    AfterCommit.run(() -> partitionedMonths.add(month));
+                });
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return partitioned;
+    }
+
+    // yyyymm of the borrow date
+    private static int archiveMonth(LocalDate borrowDate) {
+        return borrowDate.getYear() * 100 + borrowDate.getMonthValue();
+    }
+
+}
@@ -1,40 +1,66 @@
 package com.example.service;
 
+import com.example.cache.AvailabilityCounters;
+import com.example.cache.BorrowTrendTracker;
+import com.example.cache.CatalogVersion;
+import com.example.cache.FinePolicyCache;
 import com.example.dto.*;
 import com.example.entity.Book;
 import com.example.entity.BorrowRecord;
 import com.example.entity.Borrower;
-import com.example.entity.FinePolicy;
 import com.example.exception.BookNotAvailableException;
 import com.example.exception.BookNotFoundException;
 import com.example.exception.BorrowLimitExceededException;
 import com.example.exception.BorrowerNotFoundException;
+import com.example.exception.InvalidRequestException;
+import com.example.mapper.BorrowRecordMapper;
 import com.example.repository.BookRepository;
 import com.example.repository.BorrowRecordRepository;
 import com.example.repository.BorrowerRepository;
-import com.example.repository.FinePolicyRepository;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed("library.service")
 public class BorrowService {
 
+    private static final Logger log = LoggerFactory.getLogger(BorrowService.class);
+
     private final BorrowRecordRepository borrowRecordRepository;
     private final BookRepository bookRepository;
     private final BorrowerRepository borrowerRepository;
-    private final FinePolicyRepository finePolicyRepository;
+    private final FinePolicyCache finePolicyCache;
+    private final AvailabilityCounters availabilityCounters;
+    private final BorrowTrendTracker borrowTrendTracker;
+    private final BookSimilarityService bookSimilarityService;
+    private final CatalogVersion catalogVersion;
+    private final BorrowerActivityService borrowerActivityService;
+    private final OverdueProcessingService overdueProcessingService;
+    private final BorrowRecordMapper borrowRecordMapper;
 
-    private static final BigDecimal DEFAULT_FINE_PER_DAY = new BigDecimal("5.00");
+    static final BigDecimal DEFAULT_FINE_PER_DAY = new BigDecimal("5.00");
 
     @Transactional
     public BorrowRecordDTO borrowBook(BorrowRequestDTO request) {
@@ -43,43 +69,28 @@ public class BorrowService {
                 .orElseThrow(() -> new BorrowerNotFoundException(
                         "Borrower not found with id: " + request.getBorrowerId()));
 
-        // Validate book
-        Book book = bookRepository.findById(request.getBookId())
-                .orElseThrow(() -> new BookNotFoundException(
-                        "Book not found with id: " + request.getBookId()));
-
-        if (book.getDeleted()) {
-            throw new BookNotFoundException("Book has been deleted");
-        }
-
-        // Check borrow limit
-        List<BorrowRecord> activeRecords = borrowRecordRepository
-                .findByBorrowerIdAndActiveTrueAndReturnDateIsNull(borrower.getId());
-
-        if (activeRecords.size() >= borrower.getMaxBorrowLimit()) {
+        // Check borrow limit against the maintained counter, claiming the slot in the same statement
+        if (borrowerRepository.incrementActiveLoans(borrower.getId()) == 0) {
             throw new BorrowLimitExceededException(
                     "Borrower has reached maximum borrow limit of " + borrower.getMaxBorrowLimit());
         }
 
-        // Check availability
-        if (book.getAvailableCopies() <= 0) {
-            throw new BookNotAvailableException("Book is not available");
-        }
+        // Reserve a copy with a single conditional update instead of read-modify-write on the entity
+        reserveCopy(request.getBookId());
 
         // Create borrow record
         BorrowRecord record = new BorrowRecord();
-        record.setBook(book);
+        record.setBook(bookRepository.getReferenceById(request.getBookId()));
         record.setBorrower(borrower);
         record.setBorrowDate(LocalDate.now()); // Borrow date
         record.setDueDate(LocalDate.now().plusDays(14)); // Borrow Date + 14
         record.setActive(true);
 
-        // Update book availability
-        book.decrementAvailableCopies();
-        bookRepository.save(book);
-
         record = borrowRecordRepository.save(record);
-        return convertToDTO(record);
+        borrowerActivityService.recordBorrow(borrower);
+        BorrowRecordDTO dto = borrowRecordMapper.toDTO(record);
+        publishBorrow(record, dto);
+        return dto;
     }
 
     @Transactional
@@ -91,85 +102,252 @@ public class BorrowService {
                 .orElseThrow(() -> new IllegalStateException(
                         "No active borrow record found for this book and borrower"));
 
-        LocalDate returnDate = LocalDate.now();
-        record.setReturnDate(returnDate);
-        record.setActive(false);
+        ReturnOutcome outcome = closeRecord(record, LocalDate.now())
+                .orElseThrow(() -> new IllegalStateException(
+                        "No active borrow record found for this book and borrower"));
 
-        // Calculate fine if overdue
-        if (returnDate.isAfter(record.getDueDate())) {
-            long daysLate = ChronoUnit.DAYS.between(record.getDueDate(), returnDate);
-            BigDecimal finePerDay = getFinePerDay(record.getBook().getCategory());
-            record.setFineAmount(finePerDay.multiply(new BigDecimal(daysLate)));
+        // Free the borrower's loan slot
+        borrowerRepository.decrementActiveLoans(request.getBorrowerId());
+        borrowerActivityService.recordReturn(request.getBorrowerId(), outcome.fineDelta(), outcome.wasOverdue());
+
+        return borrowRecordMapper.toDTO(record);
+    }
+
+    // Self-checkout stacks: one borrower lookup, one IN query for the books, one limit claim, batched inserts
+    @Transactional
+    public BatchResultDTO borrowBooks(BatchBorrowRequestDTO request) {
+        Borrower borrower = borrowerRepository.findById(request.getBorrowerId())
+                .orElseThrow(() -> new BorrowerNotFoundException(
+                        "Borrower not found with id: " + request.getBorrowerId()));
+
+        Map<UUID, Book> books = bookRepository.findAllById(new HashSet<>(request.getBookIds())).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        int freeSlots = borrower.getMaxBorrowLimit() - borrower.getActiveLoanCount();
+
+        List<BatchItemResultDTO> items = new ArrayList<>();
+        List<BorrowRecord> records = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        LocalDate today = LocalDate.now();
+
+        for (UUID bookId : request.getBookIds()) {
+            Book book = books.get(bookId);
+            String error = null;
+            if (!seen.add(bookId)) {
+                error = "Book appears more than once in the request";
+            } else if (book == null) {
+                error = "Book not found with id: " + bookId;
+            } else if (book.getDeleted()) {
+                error = "Book has been deleted";
+            } else if (records.size() >= freeSlots) {
+                error = "Borrower has reached maximum borrow limit of " + borrower.getMaxBorrowLimit();
+            } else if (bookRepository.reserveCopy(bookId) == 0) {
+                error = "Book is not available";
+            }
+
+            if (error != null) {
+                items.add(new BatchItemResultDTO(bookId, false, null, error));
+                continue;
+            }
+
+            BorrowRecord record = new BorrowRecord();
+            record.setBook(book);
+            record.setBorrower(borrower);
+            record.setBorrowDate(today);
+            record.setDueDate(today.plusDays(14));
+            record.setActive(true);
+            records.add(record);
+            items.add(new BatchItemResultDTO(bookId, true, null, null));
         }
 
-        // Update book availability
-        Book book = record.getBook();
-        book.incrementAvailableCopies();
-        bookRepository.save(book);
+        if (!records.isEmpty()) {
+            // Another checkout may have used the slots since the borrower was read; then nothing is kept
+            if (borrowerRepository.claimActiveLoans(borrower.getId(), records.size()) == 0) {
+                throw new BorrowLimitExceededException(
+                        "Borrower has reached maximum borrow limit of " + borrower.getMaxBorrowLimit());
+            }
+            borrowRecordRepository.saveAll(records);
+            borrowerActivityService.recordBorrows(borrower, records.size());
+        }
 
-        record = borrowRecordRepository.save(record);
-        return convertToDTO(record);
+        Map<UUID, BorrowRecord> recordsByBook = records.stream()
+                .collect(Collectors.toMap(record -> record.getBook().getId(), Function.identity()));
+        for (BatchItemResultDTO item : items) {
+            BorrowRecord record = item.isSuccess() ? recordsByBook.get(item.getBookId()) : null;
+            if (record != null) {
+                item.setRecord(borrowRecordMapper.toDTO(record));
+                publishBorrow(record, item.getRecord());
+            }
+        }
+        return batchResult(borrower.getId(), items);
+    }
+
+    @Transactional
+    public BatchResultDTO returnBooks(BatchReturnRequestDTO request) {
+        // Validate borrower once so an unknown id is a 404, not a batch of per-item failures
+        if (!borrowerRepository.existsById(request.getBorrowerId())) {
+            throw new BorrowerNotFoundException("Borrower not found with id: " + request.getBorrowerId());
+        }
+
+        Map<UUID, BorrowRecord> records = borrowRecordRepository
+                .findActiveByBorrowerIdAndBookIds(request.getBorrowerId(), new HashSet<>(request.getBookIds()))
+                .stream()
+                .collect(Collectors.toMap(record -> record.getBook().getId(), Function.identity(),
+                        (first, second) -> first));
+
+        List<BatchItemResultDTO> items = new ArrayList<>();
+        List<BorrowRecord> returned = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        LocalDate today = LocalDate.now();
+        BigDecimal fineDelta = BigDecimal.ZERO;
+        long overdueReturned = 0;
+
+        for (UUID bookId : request.getBookIds()) {
+            BorrowRecord record = records.get(bookId);
+            if (!seen.add(bookId)) {
+                items.add(new BatchItemResultDTO(bookId, false, null, "Book appears more than once in the request"));
+            } else if (record == null) {
+                items.add(new BatchItemResultDTO(bookId, false, null,
+                        "No active borrow record found for this book and borrower"));
+            } else {
+                Optional<ReturnOutcome> outcome = closeRecord(record, today);
+                if (outcome.isEmpty()) {
+                    items.add(new BatchItemResultDTO(bookId, false, null,
+                            "No active borrow record found for this book and borrower"));
+                    continue;
+                }
+                fineDelta = fineDelta.add(outcome.get().fineDelta());
+                overdueReturned += outcome.get().wasOverdue() ? 1 : 0;
+                returned.add(record);
+                items.add(new BatchItemResultDTO(bookId, true, borrowRecordMapper.toDTO(record), null));
+            }
+        }
+
+        if (!returned.isEmpty()) {
+            borrowerRepository.releaseActiveLoans(request.getBorrowerId(), returned.size());
+            borrowerActivityService.recordReturns(request.getBorrowerId(), fineDelta, overdueReturned);
+        }
+        return batchResult(request.getBorrowerId(), items);
     }
 
+    @Transactional(readOnly = true)
     public List<BorrowRecordDTO> getActiveRecords() {
-        List<BorrowRecord> records = borrowRecordRepository.findByActiveTrueAndReturnDateIsNull();
-        return records.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return borrowRecordRepository.findActiveRecordDTOs();
     }
 
-    public List<TopBookDTO> getTopBorrowedBooks(int limit) {
-        List<Object[]> results = borrowRecordRepository.findTopBorrowedBooks();
-        return results.stream()
-                .limit(limit)
-                .map(row -> new TopBookDTO(
-                        (UUID) row[0],
-                        (String) row[1],
-                        ((Number) row[2]).longValue()
-                ))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BorrowRecordDTO> getActiveRecordsPage(String cursor, int size) {
+        List<BorrowRecordDTO> rows = borrowRecordRepository.findActiveRecordDTOsAfter(
+                Cursors.decodeId(cursor), PageRequest.of(0, Cursors.checkSize(size) + 1));
+        return Cursors.page(rows, size, record -> Cursors.encode(record.getId().toString()));
+    }
+
+    // Rows are handed to the sink one at a time so the full result is never held in memory
+    @Transactional(readOnly = true)
+    public void streamActiveRecords(Consumer<BorrowRecordDTO> sink) {
+        try (Stream<BorrowRecordDTO> records = borrowRecordRepository.streamActiveRecordDTOs()) {
+            records.forEach(sink);
+        }
     }
 
-    public List<BorrowerActivityDTO> getBorrowerActivity() {
-        List<Object[]> results = borrowRecordRepository.findBorrowerActivity();
+    @Transactional(readOnly = true)
+    public List<TopBookDTO> getTopBorrowedBooks(int limit, Integer days) {
+        if (limit < 1) {
+            throw new InvalidRequestException("Limit must be at least 1");
+        }
+        if (days != null && !BorrowTrendTracker.WINDOWS.contains(days)) {
+            throw new InvalidRequestException("Supported windows (days) are " + BorrowTrendTracker.WINDOWS);
+        }
+        if (borrowTrendTracker.isReady()) {
+            return borrowTrendTracker.top(limit, days);
+        }
+
+        // Until the tracker is warm, let the database apply the limit instead of sorting everything here;
+        // the queries sum both tiers before ranking
+        PageRequest topN = PageRequest.of(0, limit);
+        List<Object[]> results = days == null
+                ? borrowRecordRepository.findTopBorrowedBooks(topN)
+                : borrowRecordRepository.findTopBorrowedBooksSince(LocalDate.now().minusDays(days - 1), topN);
         return results.stream()
-                .map(row -> new BorrowerActivityDTO(
+                .map(row -> new TopBookDTO(
                         (UUID) row[0],
                         (String) row[1],
-                        ((Number) row[2]).longValue(),
-                        ((Number) row[3]).longValue(),
-                        (BigDecimal) row[4]
+                        ((Number) row[2]).longValue()
                 ))
                 .collect(Collectors.toList());
     }
 
     @Scheduled(cron = "0 0 10 * * ?") // Running the job daily at 10 AM
     public void flagOverdueRecords() {
-        List<BorrowRecord> overdueRecords = borrowRecordRepository.findOverdueRecords();
-        System.out.println("Found " + overdueRecords.size() + " overdue records");
+        OverdueRunDTO run = overdueProcessingService.processOverdueRecords();
+        log.info("Flagged {} overdue records in {} chunks ({} ms)",
+                run.getRowsProcessed(), run.getChunks(), run.getDurationMs());
+    }
+
+    // Marks the record returned, applies any fine and puts the copy back on the shelf
+    // Empty when a concurrent return closed the record first; the copy, loan count and activity are then
+    // left to that return
+    private Optional<ReturnOutcome> closeRecord(BorrowRecord record, LocalDate returnDate) {
+        BigDecimal previousFine = record.getFineAmount() == null ? BigDecimal.ZERO : record.getFineAmount();
+        boolean wasOverdue = record.isOverdue();
+
+        // Calculate fine if overdue
+        BigDecimal fineAmount = record.getFineAmount();
+        if (returnDate.isAfter(record.getDueDate())) {
+            long daysLate = ChronoUnit.DAYS.between(record.getDueDate(), returnDate);
+            BigDecimal finePerDay = getFinePerDay(record.getBook().getCategory());
+            fineAmount = finePerDay.multiply(new BigDecimal(daysLate));
+        }
+
+        if (borrowRecordRepository.closeIfActive(record.getId(), returnDate, fineAmount) == 0) {
+            return Optional.empty();
+        }
+        record.setReturnDate(returnDate);
+        record.setActive(false);
+        record.setFineAmount(fineAmount);
+
+        // Update book availability
+        if (bookRepository.releaseCopy(record.getBook().getId()) > 0) {
+            availabilityCounters.record(record.getBook().getCategory(), 0, 1, 0);
+            catalogVersion.bump();
+        }
+
+        BigDecimal fine = fineAmount == null ? BigDecimal.ZERO : fineAmount;
+        return Optional.of(new ReturnOutcome(fine.subtract(previousFine), wasOverdue));
+    }
+
+    private void publishBorrow(BorrowRecord record, BorrowRecordDTO dto) {
+        availabilityCounters.record(record.getBook().getCategory(), 0, -1, 0);
+        borrowTrendTracker.recordBorrow(dto.getId(), dto.getBookId(), dto.getBookTitle(), dto.getBorrowDate());
+        bookSimilarityService.markStale(dto.getBookId());
+        catalogVersion.bump();
+    }
 
+    private BatchResultDTO batchResult(UUID borrowerId, List<BatchItemResultDTO> items) {
+        int succeeded = (int) items.stream().filter(BatchItemResultDTO::isSuccess).count();
+        return new BatchResultDTO(borrowerId, succeeded, items.size() - succeeded, items);
+    }
+
+    private void reserveCopy(UUID bookId) {
+        if (bookRepository.reserveCopy(bookId) > 0) {
+            return;
+        }
+
+        // Nothing was updated, so work out why only on the failure path
+        Boolean deleted = bookRepository.findDeletedById(bookId)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with id: " + bookId));
+
+        if (deleted) {
+            throw new BookNotFoundException("Book has been deleted");
+        }
+        throw new BookNotAvailableException("Book is not available");
     }
 
     private BigDecimal getFinePerDay(String category) {
-        return finePolicyRepository.findByCategory(category)
-                .map(FinePolicy::getFinePerDay)
+        return finePolicyCache.getFinePerDay(category)
                 .orElse(DEFAULT_FINE_PER_DAY);
     }
 
-    private BorrowRecordDTO convertToDTO(BorrowRecord record) {
-        BorrowRecordDTO dto = new BorrowRecordDTO();
-        dto.setId(record.getId());
-        dto.setBookId(record.getBook().getId());
-        dto.setBookTitle(record.getBook().getTitle());
-        dto.setBorrowerId(record.getBorrower().getId());
-        dto.setBorrowerName(record.getBorrower().getName());
-        dto.setBorrowDate(record.getBorrowDate());
-        dto.setDueDate(record.getDueDate());
-        dto.setReturnDate(record.getReturnDate());
-        dto.setFineAmount(record.getFineAmount());
-        dto.setActive(record.getActive());
-        dto.setOverdue(record.isOverdue());
-        return dto;
+    private record ReturnOutcome(BigDecimal fineDelta, boolean wasOverdue) {
     }
 
 
@@ -0,0 +1,107 @@
+package com.example.service;
+
+import com.example.dto.BorrowerActivityDTO;
+import com.example.entity.Borrower;
+import com.example.entity.BorrowerActivity;
+import com.example.exception.InvalidRequestException;
+import com.example.repository.BorrowerActivityRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class BorrowerActivityService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowerActivityService.class);
+
+    private final BorrowerActivityRepository borrowerActivityRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Only columns backed by an index on borrower_activity (plus the name for alphabetical listings)
+    private static final Set<String> SORT_COLUMNS = Set.of("totalFines", "totalBorrowed", "overdueCount", "borrowerName");
+
+    // Rebuilds before the web server takes requests, so no recordBorrow/recordReturn can land between
+    // the delete and the re-insert and be wiped out
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> rebuild());
+    }
+
+    @Transactional
+    public void rebuild() {
+        borrowerActivityRepository.deleteAllActivity();
+        int rows = borrowerActivityRepository.insertActivityFromBorrowRecords();
+        borrowerActivityRepository.addArchivedTotals();
+        log.info("Rebuilt borrower activity for {} borrowers", rows);
+    }
+
+    // Nightly, after the date has rolled over; OverdueProcessingService also calls it after each run
+    // that flagged records, so accrued fines show up without waiting for the next night
+    @Scheduled(cron = "0 30 0 * * ?")
+    @Transactional
+    public void refreshOverdueCounts() {
+        int rows = borrowerActivityRepository.refreshOverdueCountsAndFines();
+        log.info("Refreshed overdue counts for {} borrowers", rows);
+    }
+
+    @Transactional
+    public void createFor(Borrower borrower) {
+        borrowerActivityRepository.save(new BorrowerActivity(
+                borrower.getId(), borrower.getName(), 0L, 0L, BigDecimal.ZERO));
+    }
+
+    @Transactional
+    public void recordBorrow(Borrower borrower) {
+        recordBorrows(borrower, 1);
+    }
+
+    @Transactional
+    public void recordBorrows(Borrower borrower, long count) {
+        if (borrowerActivityRepository.incrementBorrowed(borrower.getId(), count) == 0) {
+            // Row missing (e.g. borrower inserted outside the service); start it here
+            borrowerActivityRepository.save(new BorrowerActivity(
+                    borrower.getId(), borrower.getName(), count, 0L, BigDecimal.ZERO));
+        }
+    }
+
+    @Transactional
+    public void recordReturn(UUID borrowerId, BigDecimal fineDelta, boolean wasOverdue) {
+        recordReturns(borrowerId, fineDelta, wasOverdue ? 1 : 0);
+    }
+
+    @Transactional
+    public void recordReturns(UUID borrowerId, BigDecimal fineDelta, long overdueReturned) {
+        borrowerActivityRepository.recordReturn(borrowerId, fineDelta, overdueReturned);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<BorrowerActivityDTO> getBorrowerActivity(int page, int size, String sortBy, Sort.Direction direction) {
+        if (!SORT_COLUMNS.contains(sortBy)) {
+            throw new InvalidRequestException("Borrower activity can be sorted by " + SORT_COLUMNS);
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by(direction, sortBy).and(Sort.by("borrowerId")));
+        return borrowerActivityRepository.findByTotalBorrowedGreaterThan(0L, pageRequest)
+                .map(activity -> new BorrowerActivityDTO(
+                        activity.getBorrowerId(),
+                        activity.getBorrowerName(),
+                        activity.getTotalBorrowed(),
+                        activity.getOverdueCount(),
+                        activity.getTotalFines()
+                ));
+    }
+
+}
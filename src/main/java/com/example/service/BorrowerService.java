@@ -3,25 +3,43 @@ package com.example.service;
 
 import com.example.dto.BorrowRecordDTO;
 import com.example.dto.BorrowerDTO;
-import com.example.entity.BorrowRecord;
+import com.example.dto.CursorPageDTO;
 import com.example.entity.Borrower;
+import com.example.repository.ArchivedBorrowRecordRepository;
 import com.example.repository.BorrowRecordRepository;
 import com.example.repository.BorrowerRepository;
 import com.example.exception.BorrowerNotFoundException;
-import jakarta.transaction.Transactional;
+import com.example.mapper.BorrowerMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
-public class BorrowerService {
+@Timed("library.service")
+public class BorrowerService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(BorrowerService.class);
 
     private final BorrowerRepository borrowerRepository;
     private final BorrowRecordRepository borrowRecordRepository;
+    private final ArchivedBorrowRecordRepository archivedBorrowRecordRepository;
+    private final BorrowerActivityService borrowerActivityService;
+    private final BorrowerMapper borrowerMapper;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional
     public BorrowerDTO registerBorrower(BorrowerDTO borrowerDTO) {
@@ -37,51 +55,69 @@ public class BorrowerService {
         borrower.setMembershipType(borrowerDTO.getMembershipType());
 
         borrower = borrowerRepository.save(borrower);
-        return convertToDTO(borrower);
+        borrowerActivityService.createFor(borrower);
+        return borrowerMapper.toDTO(borrower);
     }
 
+    @Transactional(readOnly = true)
     public List<BorrowRecordDTO> getBorrowHistory(UUID borrowerId) {
-        Borrower borrower = borrowerRepository.findById(borrowerId)
-                .orElseThrow(() -> new BorrowerNotFoundException("Borrower not found with id: " + borrowerId));
+        checkBorrowerExists(borrowerId);
 
-        List<BorrowRecord> records = borrowRecordRepository.findByBorrowerId(borrowerId);
-        return records.stream()
-                .map(this::convertRecordToDTO)
-                .collect(Collectors.toList());
+        // Recent and open loans from borrow_records, older returned ones from the archive
+        List<BorrowRecordDTO> history = new ArrayList<>(borrowRecordRepository.findRecordDTOsByBorrowerId(borrowerId));
+        history.addAll(archivedBorrowRecordRepository.findRecordDTOsByBorrowerId(borrowerId));
+        return history;
     }
 
-    public List<BorrowerDTO> getOverdueBorrowers() {
-        List<Borrower> borrowers = borrowerRepository.findBorrowersWithOverdueBooks();
-        return borrowers.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDTO<BorrowRecordDTO> getBorrowHistoryPage(UUID borrowerId, String cursor, int size) {
+        checkBorrowerExists(borrowerId);
+
+        // Both tiers are read past the same id and merged, so the cursor stays a single id
+        UUID afterId = Cursors.decodeId(cursor);
+        PageRequest window = PageRequest.of(0, Cursors.checkSize(size) + 1);
+        List<BorrowRecordDTO> rows = Cursors.mergeById(
+                borrowRecordRepository.findRecordDTOsByBorrowerIdAfter(borrowerId, afterId, window),
+                archivedBorrowRecordRepository.findRecordDTOsByBorrowerIdAfter(borrowerId, afterId, window),
+                BorrowRecordDTO::getId, size + 1);
+        return Cursors.page(rows, size, record -> Cursors.encode(record.getId().toString()));
+    }
+
+    @Transactional(readOnly = true)
+    public void streamBorrowHistory(UUID borrowerId, Consumer<BorrowRecordDTO> sink) {
+        try (Stream<BorrowRecordDTO> records = borrowRecordRepository.streamRecordDTOsByBorrowerId(borrowerId)) {
+            records.forEach(sink);
+        }
+        try (Stream<BorrowRecordDTO> archived = archivedBorrowRecordRepository.streamRecordDTOsByBorrowerId(borrowerId)) {
+            archived.forEach(sink);
+        }
     }
 
-    private BorrowerDTO convertToDTO(Borrower borrower) {
-        BorrowerDTO dto = new BorrowerDTO();
-        dto.setId(borrower.getId());
-        dto.setName(borrower.getName());
-        dto.setEmail(borrower.getEmail());
-        dto.setMembershipType(borrower.getMembershipType());
-        dto.setMaxBorrowLimit(borrower.getMaxBorrowLimit());
-        return dto;
+    public void checkBorrowerExists(UUID borrowerId) {
+        if (!borrowerRepository.existsById(borrowerId)) {
+            throw new BorrowerNotFoundException("Borrower not found with id: " + borrowerId);
+        }
     }
 
-    private BorrowRecordDTO convertRecordToDTO(BorrowRecord record) {
-        BorrowRecordDTO dto = new BorrowRecordDTO();
-        dto.setId(record.getId());
-        dto.setBookId(record.getBook().getId());
-        dto.setBookTitle(record.getBook().getTitle());
-        dto.setBorrowerId(record.getBorrower().getId());
-        dto.setBorrowerName(record.getBorrower().getName());
-        dto.setBorrowDate(record.getBorrowDate());
-        dto.setDueDate(record.getDueDate());
-        dto.setReturnDate(record.getReturnDate());
-        dto.setFineAmount(record.getFineAmount());
-        dto.setActive(record.getActive());
-        dto.setOverdue(record.isOverdue());
-        return dto;
+    // Runs before the web server takes requests: the counters are overwritten from a snapshot of
+    // borrow_records, so a borrow or return committed during the rewrite would be lost
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(status -> reconcileActiveLoanCounts());
     }
 
+    // Rebuilds the active-loan counters from borrow_records so they cannot drift across restarts
+    @Transactional
+    public void reconcileActiveLoanCounts() {
+        int updated = borrowerRepository.reconcileActiveLoanCounts();
+        log.info("Reconciled active loan counts for {} borrowers", updated);
+    }
+
+    public List<BorrowerDTO> getOverdueBorrowers() {
+        List<Borrower> borrowers = borrowerRepository.findBorrowersWithOverdueBooks();
+        return borrowers.stream()
+                .map(borrowerMapper::toDTO)
+                .collect(Collectors.toList());
+    }
 
 }
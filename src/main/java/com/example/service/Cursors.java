@@ -0,0 +1,108 @@
+package com.example.service;
+
+import com.example.dto.CursorPageDTO;
+import com.example.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+// Opaque keyset cursors: each key part is base64url-encoded on its own and the parts are joined with a dot,
+// which the base64url alphabet never produces, so key values may contain any character
+final class Cursors {
+
+    static final int MAX_PAGE_SIZE = 500;
+
+    private static final String SEPARATOR = ".";
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private Cursors() {
+    }
+
+    static String encode(String... parts) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        StringJoiner joined = new StringJoiner(SEPARATOR);
+        for (String part : parts) {
+            joined.add(encoder.encodeToString(part.getBytes(StandardCharsets.UTF_8)));
+        }
+        return joined.toString();
+    }
+
+    static String[] decode(String cursor, int expectedParts) {
+        String[] parts = cursor.split(Pattern.quote(SEPARATOR), -1);
+        if (parts.length != expectedParts) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = new String(decoder.decode(parts[i]), StandardCharsets.UTF_8);
+            }
+            return parts;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    // Id-only cursors start below every UUID so the first page needs no separate query
+    static UUID decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_ID;
+        }
+        try {
+            return UUID.fromString(decode(cursor, 1)[0]);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    static int checkSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    // UUID.compareTo compares the halves as signed longs; H2 and PostgreSQL order uuid columns bytewise
+    static final Comparator<UUID> ID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    // Merges two keyset pages that are each ordered by id, keeping at most limit rows. A row moved between
+    // the two reads can appear in both; the copy with the same id is dropped.
+    static <T> List<T> mergeById(List<T> first, List<T> second, Function<T, UUID> idOf, int limit) {
+        List<T> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        UUID lastId = null;
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            T next;
+            if (j == second.size()
+                    || (i < first.size() && ID_ORDER.compare(idOf.apply(first.get(i)), idOf.apply(second.get(j))) <= 0)) {
+                next = first.get(i++);
+            } else {
+                next = second.get(j++);
+            }
+            if (!idOf.apply(next).equals(lastId)) {
+                merged.add(next);
+                lastId = idOf.apply(next);
+            }
+        }
+        return merged;
+    }
+
+    // Expects up to size + 1 rows: the extra row only signals that another page exists
+    static <T> CursorPageDTO<T> page(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null;
+        return new CursorPageDTO<>(content, content.size(), hasNext, nextCursor);
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.service;
+
+import com.example.cache.AfterCommit;
+import com.example.cache.FinePolicyCache;
+import com.example.dto.FinePolicyCacheStatsDTO;
+import com.example.dto.FinePolicyDTO;
+import com.example.entity.FinePolicy;
+import com.example.repository.FinePolicyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class FinePolicyService {
+
+    private final FinePolicyRepository finePolicyRepository;
+    private final FinePolicyCache finePolicyCache;
+
+    public List<FinePolicyDTO> getPolicies() {
+        return finePolicyCache.snapshot().entrySet().stream()
+                .map(entry -> new FinePolicyDTO(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public FinePolicyDTO savePolicy(String category, FinePolicyDTO policyDTO) {
+        FinePolicy policy = finePolicyRepository.findByCategory(category)
+                .orElseGet(() -> {
+                    FinePolicy created = new FinePolicy();
+                    created.setCategory(category);
+                    return created;
+                });
+        policy.setFinePerDay(policyDTO.getFinePerDay());
+        policy = finePolicyRepository.save(policy);
+
+        // Swap in a fresh map once the change is committed
+        AfterCommit.run(finePolicyCache::refresh);
+        return new FinePolicyDTO(policy.getCategory(), policy.getFinePerDay());
+    }
+
+    public FinePolicyCacheStatsDTO getCacheStats() {
+        long hits = finePolicyCache.getHits();
+        long misses = finePolicyCache.getMisses();
+        long lookups = hits + misses;
+        return new FinePolicyCacheStatsDTO(
+                finePolicyCache.snapshot().size(),
+                hits,
+                misses,
+                lookups == 0 ? 0.0 : (double) hits / lookups,
+                finePolicyCache.getLastRefreshed()
+        );
+    }
+
+}
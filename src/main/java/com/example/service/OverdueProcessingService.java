@@ -0,0 +1,137 @@
+package com.example.service;
+
+import com.example.cache.FinePolicyCache;
+import com.example.dto.OverdueRunDTO;
+import com.example.entity.JobCheckpoint;
+import com.example.repository.BorrowRecordRepository;
+import com.example.repository.JobCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Flags overdue loans and accrues their fines in fixed-size chunks, each in its own short transaction
+@Service
+@RequiredArgsConstructor
+public class OverdueProcessingService {
+
+    static final String JOB_NAME = "overdue-processing";
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    // Re-checks the loan is still open: one returned after the chunk was read keeps its settled fine
+    private static final String FLAG_OVERDUE_SQL = "UPDATE borrow_records SET overdue_flagged = true, fine_amount = ? " +
+            "WHERE id = ? AND active = true AND return_date IS NULL";
+
+    private final BorrowRecordRepository borrowRecordRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final FinePolicyCache finePolicyCache;
+    private final BorrowerActivityService borrowerActivityService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${library.overdue.chunk-size:1000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile OverdueRunDTO lastRun;
+
+    public OverdueRunDTO processOverdueRecords() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Overdue processing is already running");
+        }
+
+        try {
+            long started = System.nanoTime();
+            LocalDate today = LocalDate.now();
+            JobCheckpoint checkpoint = transactionTemplate.execute(status -> startCheckpoint(today));
+            boolean resumed = checkpoint.getLastKey() != null;
+
+            UUID lastKey = resumed ? checkpoint.getLastKey() : FIRST_ID;
+            long processed = checkpoint.getProcessed();
+            int chunks = 0;
+
+            while (true) {
+                UUID afterKey = lastKey;
+                long processedSoFar = processed;
+                ChunkResult chunk = transactionTemplate.execute(status -> processChunk(today, afterKey, processedSoFar));
+                if (chunk.rows() == 0) {
+                    break;
+                }
+                lastKey = chunk.lastKey();
+                processed += chunk.rows();
+                chunks++;
+            }
+
+            long finalProcessed = processed;
+            transactionTemplate.executeWithoutResult(status -> completeCheckpoint(finalProcessed));
+            // Flagging changed fine_amount behind borrower_activity's back; recount instead of waiting for the night
+            if (chunks > 0) {
+                borrowerActivityService.refreshOverdueCounts();
+            }
+
+            lastRun = new OverdueRunDTO(today, resumed, processed, chunks,
+                    (System.nanoTime() - started) / 1_000_000, LocalDateTime.now());
+            return lastRun;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public OverdueRunDTO getLastRun() {
+        return lastRun;
+    }
+
+    // Resume only an unfinished run from the same day; anything else starts over
+    private JobCheckpoint startCheckpoint(LocalDate today) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME).orElse(null);
+        if (checkpoint != null && today.equals(checkpoint.getRunDate()) && !checkpoint.getCompleted()) {
+            return checkpoint;
+        }
+
+        checkpoint = new JobCheckpoint(JOB_NAME, today, null, 0L, false, LocalDateTime.now());
+        return jobCheckpointRepository.save(checkpoint);
+    }
+
+    private ChunkResult processChunk(LocalDate today, UUID afterKey, long processedSoFar) {
+        List<Object[]> rows = borrowRecordRepository.findOverdueChunk(today, afterKey, PageRequest.of(0, chunkSize));
+        if (rows.isEmpty()) {
+            return new ChunkResult(0, afterKey);
+        }
+
+        jdbcTemplate.batchUpdate(FLAG_OVERDUE_SQL, rows, rows.size(), (statement, row) -> {
+            LocalDate dueDate = (LocalDate) row[1];
+            long daysLate = ChronoUnit.DAYS.between(dueDate, today);
+            BigDecimal finePerDay = finePolicyCache.getFinePerDay((String) row[2]).orElse(BorrowService.DEFAULT_FINE_PER_DAY);
+            statement.setBigDecimal(1, finePerDay.multiply(new BigDecimal(daysLate)));
+            statement.setObject(2, row[0]);
+        });
+
+        UUID lastKey = (UUID) rows.get(rows.size() - 1)[0];
+        JobCheckpoint checkpoint = jobCheckpointRepository.getReferenceById(JOB_NAME);
+        checkpoint.setLastKey(lastKey);
+        checkpoint.setProcessed(processedSoFar + rows.size());
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        return new ChunkResult(rows.size(), lastKey);
+    }
+
+    private void completeCheckpoint(long processed) {
+        JobCheckpoint checkpoint = jobCheckpointRepository.getReferenceById(JOB_NAME);
+        checkpoint.setProcessed(processed);
+        checkpoint.setCompleted(true);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private record ChunkResult(int rows, UUID lastKey) {
+    }
+
+}
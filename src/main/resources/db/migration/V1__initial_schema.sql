@@ -0,0 +1,83 @@
+-- Baseline schema for the prod profile (PostgreSQL). Mirrors the JPA entities; Hibernate validates against it.
+
+CREATE TABLE books (
+    id               UUID PRIMARY KEY,
+    title            VARCHAR(255) NOT NULL,
+    author           VARCHAR(255) NOT NULL,
+    category         VARCHAR(255) NOT NULL,
+    is_available     BOOLEAN      NOT NULL DEFAULT TRUE,
+    total_copies     INTEGER      NOT NULL DEFAULT 0,
+    available_copies INTEGER      NOT NULL DEFAULT 0,
+    deleted          BOOLEAN      NOT NULL DEFAULT FALSE
+);
+
+-- Keyset pagination and autocomplete/duplicate lookups
+CREATE INDEX idx_books_title_id ON books (title, id);
+CREATE INDEX idx_books_author_id ON books (author, id);
+CREATE INDEX idx_books_title_author ON books (title, author);
+-- Catalog filters (get-books, similar-book candidates)
+CREATE INDEX idx_books_category_deleted ON books (category, deleted);
+CREATE INDEX idx_books_available_deleted ON books (is_available, deleted);
+
+CREATE TABLE borrowers (
+    id                UUID PRIMARY KEY,
+    name              VARCHAR(255) NOT NULL,
+    email             VARCHAR(255) NOT NULL UNIQUE,
+    membership_type   VARCHAR(255) NOT NULL CHECK (membership_type IN ('BASIC', 'PREMIUM')),
+    max_borrow_limit  INTEGER      NOT NULL,
+    active_loan_count INTEGER      NOT NULL DEFAULT 0
+);
+
+CREATE TABLE borrow_records (
+    id              UUID PRIMARY KEY,
+    book_id         UUID          NOT NULL REFERENCES books (id),
+    borrower_id     UUID          NOT NULL REFERENCES borrowers (id),
+    borrow_date     DATE          NOT NULL,
+    due_date        DATE          NOT NULL,
+    return_date     DATE,
+    fine_amount     NUMERIC(10, 2),
+    active          BOOLEAN       NOT NULL DEFAULT TRUE,
+    overdue_flagged BOOLEAN       NOT NULL DEFAULT FALSE
+);
+
+-- Active-loan lookups by book and by borrower, and the overdue scan
+CREATE INDEX idx_borrow_records_book_active ON borrow_records (book_id, active, return_date);
+CREATE INDEX idx_borrow_records_borrower_active ON borrow_records (borrower_id, active, return_date);
+CREATE INDEX idx_borrow_records_active_due ON borrow_records (active, due_date);
+
+CREATE TABLE fine_policies (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    category      VARCHAR(255)   NOT NULL UNIQUE,
+    fine_per_day  NUMERIC(10, 2) NOT NULL
+);
+
+CREATE TABLE borrower_activity (
+    borrower_id    UUID PRIMARY KEY,
+    borrower_name  VARCHAR(255)   NOT NULL,
+    total_borrowed BIGINT         NOT NULL DEFAULT 0,
+    overdue_count  BIGINT         NOT NULL DEFAULT 0,
+    total_fines    NUMERIC(12, 2) NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_borrower_activity_fines ON borrower_activity (total_fines);
+CREATE INDEX idx_borrower_activity_borrowed ON borrower_activity (total_borrowed);
+CREATE INDEX idx_borrower_activity_overdue ON borrower_activity (overdue_count);
+
+CREATE TABLE job_checkpoints (
+    job_name   VARCHAR(255) PRIMARY KEY,
+    run_date   DATE         NOT NULL,
+    last_key   UUID,
+    processed  BIGINT       NOT NULL DEFAULT 0,
+    completed  BOOLEAN      NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE book_similarities (
+    id              UUID PRIMARY KEY,
+    book_id         UUID             NOT NULL,
+    similar_book_id UUID             NOT NULL,
+    score           DOUBLE PRECISION NOT NULL,
+    neighbor_rank   INTEGER          NOT NULL
+);
+
+CREATE INDEX idx_book_similarities_book_rank ON book_similarities (book_id, neighbor_rank);
@@ -0,0 +1,21 @@
+-- Cold tier for returned loans (BorrowArchiveService). No foreign keys: rows are written once in bulk
+-- and books/borrowers are only soft-deleted, so the joins on read always find them.
+CREATE TABLE borrow_records_archive (
+    id              UUID PRIMARY KEY,
+    archive_month   INTEGER        NOT NULL,
+    book_id         UUID           NOT NULL,
+    borrower_id     UUID           NOT NULL,
+    borrow_date     DATE           NOT NULL,
+    due_date        DATE           NOT NULL,
+    return_date     DATE           NOT NULL,
+    fine_amount     NUMERIC(10, 2),
+    overdue_flagged BOOLEAN        NOT NULL
+);
+
+-- Month key for dropping or exporting whole months; borrower history pages; analytics date ranges
+CREATE INDEX idx_borrow_archive_month ON borrow_records_archive (archive_month);
+CREATE INDEX idx_borrow_archive_borrower ON borrow_records_archive (borrower_id, id);
+CREATE INDEX idx_borrow_archive_borrow_date ON borrow_records_archive (borrow_date, book_id);
+
+-- Lets the archival job find returned loans past the cutoff without scanning open ones
+CREATE INDEX idx_borrow_records_active_returned ON borrow_records (active, return_date);
@@ -0,0 +1,2 @@
+-- Borrowers of a book in the cold tier, for the co-borrow query behind similar books
+CREATE INDEX idx_borrow_archive_book ON borrow_records_archive (book_id, borrower_id);
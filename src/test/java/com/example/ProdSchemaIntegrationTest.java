@@ -0,0 +1,112 @@
+package com.example;
+
+import com.example.dto.BorrowRecordDTO;
+import com.example.dto.BorrowRequestDTO;
+import com.example.dto.ReturnRequestDTO;
+import com.example.entity.Book;
+import com.example.entity.Borrower;
+import com.example.entity.MembershipType;
+import com.example.repository.BookRepository;
+import com.example.repository.BorrowerRepository;
+import com.example.service.BorrowService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The prod profile against H2 in PostgreSQL mode: Flyway builds the schema from db/migration and Hibernate
+// validates the entities against it, so a migration that drifts from the entities fails the context.
+// H2Dialect because Hibernate's PostgreSQL dialect reads H2's metadata types as mismatches.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prodschema;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "library.similarity.recompute-on-startup=false"
+})
+@ActiveProfiles("prod")
+class ProdSchemaIntegrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Test
+    void everyMigrationIsApplied() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertThat(applied).isNotEmpty();
+        assertThat(Arrays.stream(applied).map(MigrationInfo::getState)).containsOnly(MigrationState.SUCCESS);
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    void repositoryQueryIndexesExist() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes", String.class);
+        assertThat(indexes).contains(
+                "idx_books_category_deleted",
+                "idx_books_available_deleted",
+                "idx_books_title_author",
+                "idx_borrow_records_book_active",
+                "idx_borrow_records_borrower_active",
+                "idx_borrow_records_active_due",
+                "idx_borrow_archive_book");
+    }
+
+    // Runs the relative copy updates and the native union query against the migrated schema
+    @Test
+    void borrowAndReturnRunOnMigratedSchema() {
+        Book book = new Book();
+        book.setTitle("Migrated Schema " + UUID.randomUUID());
+        book.setAuthor("Test Author");
+        book.setCategory("Fiction");
+        book.setTotalCopies(1);
+        book.setAvailableCopies(1);
+        UUID bookId = bookRepository.save(book).getId();
+
+        Borrower borrower = new Borrower();
+        borrower.setName("Migrated Schema Borrower");
+        borrower.setEmail("schema-" + UUID.randomUUID() + "@example.com");
+        borrower.setMembershipType(MembershipType.BASIC);
+        UUID borrowerId = borrowerRepository.save(borrower).getId();
+
+        borrowService.borrowBook(new BorrowRequestDTO(bookId, borrowerId));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT available_copies FROM books WHERE id = ?", Integer.class, bookId)).isZero();
+
+        ReturnRequestDTO request = new ReturnRequestDTO();
+        request.setBookId(bookId);
+        request.setBorrowerId(borrowerId);
+        BorrowRecordDTO returned = borrowService.returnBook(request);
+        assertThat(returned.getReturnDate()).isNotNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT available_copies FROM books WHERE id = ?", Integer.class, bookId)).isEqualTo(1);
+
+        assertThat(borrowService.getTopBorrowedBooks(10, null))
+                .anySatisfy(top -> assertThat(top.getBookId()).isEqualTo(bookId));
+    }
+
+}
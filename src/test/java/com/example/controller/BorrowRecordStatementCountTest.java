@@ -0,0 +1,121 @@
+package com.example.controller;
+
+import com.example.dto.BorrowRequestDTO;
+import com.example.entity.Book;
+import com.example.entity.Borrower;
+import com.example.entity.MembershipType;
+import com.example.repository.BookRepository;
+import com.example.repository.BorrowerRepository;
+import com.example.service.BorrowService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Borrow record lists are DTO projections from one join: the statement count must not grow with the rows.
+// Each request is measured once through SessionStatementMetrics, which records one sample per Hibernate
+// session; background jobs are pushed out of the way and the test asserts the request was the only session.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statementcount",
+        "library.similarity.recompute-on-startup=false",
+        "library.similarity.refresh-interval=PT1H",
+        "library.autocomplete.rebuild-interval=PT1H",
+        "library.availability.consistency-check-interval=PT1H"
+})
+@AutoConfigureMockMvc
+class BorrowRecordStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Test
+    void activeRecordsRunOneStatementWhateverTheRowCount() throws Exception {
+        borrowAll(newBorrower(), newBooks(1));
+        assertThat(statementsFor("/borrows/records/active")).isEqualTo(1);
+
+        for (int i = 0; i < 4; i++) {
+            borrowAll(newBorrower(), newBooks(MembershipType.PREMIUM.getMaxBorrowLimit()));
+        }
+        assertThat(statementsFor("/borrows/records/active")).isEqualTo(1);
+    }
+
+    @Test
+    void borrowerHistoryRunsFixedStatementsWhateverTheRowCount() throws Exception {
+        // Existence check, then one projection per tier (borrow_records and borrow_records_archive)
+        Borrower borrower = newBorrower();
+        String uri = "/borrowers/" + borrower.getId() + "/records";
+
+        borrowAll(borrower, newBooks(1));
+        assertThat(statementsFor(uri)).isEqualTo(3);
+
+        borrowAll(borrower, newBooks(MembershipType.PREMIUM.getMaxBorrowLimit() - 1));
+        assertThat(statementsFor(uri)).isEqualTo(3);
+    }
+
+    // Cold second-level and query cache, so cached lazy loads cannot hide an N+1
+    private long statementsFor(String uri) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        DistributionSummary statements = Metrics.globalRegistry.get("library.hibernate.session.statements").summary();
+        long sessionsBefore = statements.count();
+        double statementsBefore = statements.totalAmount();
+
+        mockMvc.perform(get(uri)).andExpect(status().isOk());
+
+        assertThat(statements.count() - sessionsBefore).as("sessions that ran statements").isEqualTo(1);
+        return (long) (statements.totalAmount() - statementsBefore);
+    }
+
+    private Borrower newBorrower() {
+        Borrower borrower = new Borrower();
+        borrower.setName("Statement Count Borrower");
+        borrower.setEmail("statements-" + UUID.randomUUID() + "@example.com");
+        borrower.setMembershipType(MembershipType.PREMIUM);
+        return borrowerRepository.save(borrower);
+    }
+
+    private List<Book> newBooks(int count) {
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Book book = new Book();
+            book.setTitle("Statement Count Title " + UUID.randomUUID());
+            book.setAuthor("Test Author");
+            book.setCategory("Fiction");
+            book.setTotalCopies(1);
+            book.setAvailableCopies(1);
+            books.add(book);
+        }
+        return bookRepository.saveAll(books);
+    }
+
+    private void borrowAll(Borrower borrower, List<Book> books) {
+        for (Book book : books) {
+            borrowService.borrowBook(new BorrowRequestDTO(book.getId(), borrower.getId()));
+        }
+    }
+
+}
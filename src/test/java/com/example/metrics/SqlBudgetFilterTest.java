@@ -0,0 +1,76 @@
+package com.example.metrics;
+
+import com.example.entity.Borrower;
+import com.example.entity.MembershipType;
+import com.example.exception.SqlBudgetExceededException;
+import com.example.repository.BorrowerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Strict budget mode: a request over its statement budget must fail the test that sends it.
+// Borrower history runs an existence check plus one query per tier, so a budget of 1 is always exceeded.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sqlbudget",
+        "library.similarity.recompute-on-startup=false",
+        "library.sql.fail-on-budget-exceeded=true",
+        "library.sql.budgets.[/borrowers/{id}/records]=1",
+        "library.sql.budgets.[/borrowers/{id}/records/page]=10"
+})
+@AutoConfigureMockMvc
+class SqlBudgetFilterTest {
+
+    private static final String OVER_BUDGET = "/borrowers/{id}/records";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Test
+    void requestOverBudgetFails() {
+        UUID borrowerId = newBorrower();
+        double before = exceededCount();
+
+        Throwable thrown = catchThrowable(() -> mockMvc.perform(get(OVER_BUDGET, borrowerId)));
+
+        assertThat(NestedExceptionUtils.getMostSpecificCause(thrown))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessageContaining("over its budget of 1");
+        assertThat(exceededCount()).isEqualTo(before + 1);
+    }
+
+    @Test
+    void requestWithinBudgetPasses() throws Exception {
+        mockMvc.perform(get("/borrowers/{id}/records/page", newBorrower())).andExpect(status().isOk());
+    }
+
+    private double exceededCount() {
+        var counter = meterRegistry.find("library.sql.budget.exceeded").tag("uri", OVER_BUDGET).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private UUID newBorrower() {
+        Borrower borrower = new Borrower();
+        borrower.setName("Budget Borrower");
+        borrower.setEmail("budget-" + UUID.randomUUID() + "@example.com");
+        borrower.setMembershipType(MembershipType.BASIC);
+        return borrowerRepository.save(borrower).getId();
+    }
+
+}
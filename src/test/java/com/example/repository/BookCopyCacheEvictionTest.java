@@ -0,0 +1,75 @@
+package com.example.repository;
+
+import com.example.entity.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A reader that loads the book while a reservation is still uncommitted caches the old row; the entry
+// must be gone once the reservation commits, so the next read sees the new available_copies
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:copycache;LOCK_TIMEOUT=10000",
+        "library.similarity.recompute-on-startup=false"
+})
+class BookCopyCacheEvictionTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void readAfterConcurrentReserveSeesCommittedCopies() throws Exception {
+        Book book = new Book();
+        book.setTitle("Cached Title " + UUID.randomUUID());
+        book.setAuthor("Test Author");
+        book.setCategory("Fiction");
+        book.setTotalCopies(5);
+        book.setAvailableCopies(5);
+        UUID bookId = bookRepository.save(book).getId();
+        entityManagerFactory.getCache().evict(Book.class, bookId);
+
+        CountDownLatch reserved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Integer> writer = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            int updated = bookRepository.reserveCopy(bookId);
+            reserved.countDown();
+            await(commit);
+            return updated;
+        }));
+
+        assertThat(reserved.await(30, TimeUnit.SECONDS)).isTrue();
+        // Loaded from the database while the reservation is open, and put in the second-level cache
+        assertThat(bookRepository.findById(bookId).orElseThrow().getAvailableCopies()).isEqualTo(5);
+        assertThat(entityManagerFactory.getCache().contains(Book.class, bookId)).isTrue();
+
+        commit.countDown();
+        assertThat(writer.get(30, TimeUnit.SECONDS)).isEqualTo(1);
+
+        assertThat(entityManagerFactory.getCache().contains(Book.class, bookId)).isFalse();
+        assertThat(bookRepository.findById(bookId).orElseThrow().getAvailableCopies()).isEqualTo(4);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.example.service;
+
+import com.example.dto.BorrowRequestDTO;
+import com.example.entity.Book;
+import com.example.entity.Borrower;
+import com.example.entity.MembershipType;
+import com.example.exception.BookNotAvailableException;
+import com.example.repository.BookRepository;
+import com.example.repository.BorrowerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Fires a burst of borrows at one title from distinct borrowers: every copy must go out exactly once
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:borrowconcurrency;LOCK_TIMEOUT=10000",
+        "library.similarity.recompute-on-startup=false"
+})
+class BorrowServiceConcurrencyTest {
+
+    private static final int COPIES = 50;
+    private static final int BORROWERS = 2000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelBorrowsNeverOversellCopies() throws Exception {
+        Book book = new Book();
+        book.setTitle("Contended Title " + UUID.randomUUID());
+        book.setAuthor("Test Author");
+        book.setCategory("Fiction");
+        book.setTotalCopies(COPIES);
+        book.setAvailableCopies(COPIES);
+        UUID bookId = bookRepository.save(book).getId();
+
+        List<Borrower> borrowers = new ArrayList<>(BORROWERS);
+        for (int i = 0; i < BORROWERS; i++) {
+            Borrower borrower = new Borrower();
+            borrower.setName("Borrower " + i);
+            borrower.setEmail("concurrency-" + i + "-" + UUID.randomUUID() + "@example.com");
+            borrower.setMembershipType(MembershipType.BASIC);
+            borrowers.add(borrower);
+        }
+        List<UUID> borrowerIds = borrowerRepository.saveAll(borrowers).stream().map(Borrower::getId).toList();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger unavailable = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (UUID borrowerId : borrowerIds) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        borrowService.borrowBook(new BorrowRequestDTO(bookId, borrowerId));
+                        succeeded.incrementAndGet();
+                    } catch (BookNotAvailableException ex) {
+                        unavailable.incrementAndGet();
+                    } catch (Throwable ex) {
+                        unexpected.add(ex);
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(succeeded.get()).isEqualTo(COPIES);
+        assertThat(unavailable.get()).isEqualTo(BORROWERS - COPIES);
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT available_copies, total_copies, is_available FROM books WHERE id = ?", bookId);
+        assertThat(((Number) row.get("available_copies")).intValue()).isZero();
+        assertThat(((Number) row.get("total_copies")).intValue()).isEqualTo(COPIES);
+        assertThat(row.get("is_available")).isEqualTo(false);
+
+        Integer activeRecords = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM borrow_records WHERE book_id = ? AND active = TRUE AND return_date IS NULL",
+                Integer.class, bookId);
+        assertThat(activeRecords).isEqualTo(COPIES);
+
+        // Attempts that found no copy roll back the loan slot they claimed
+        Integer claimedSlots = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(active_loan_count), 0) FROM borrowers WHERE email LIKE 'concurrency-%'",
+                Integer.class);
+        assertThat(claimedSlots).isEqualTo(COPIES);
+    }
+
+}
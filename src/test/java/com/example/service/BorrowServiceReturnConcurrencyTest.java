@@ -0,0 +1,113 @@
+package com.example.service;
+
+import com.example.dto.BorrowRequestDTO;
+import com.example.dto.ReturnRequestDTO;
+import com.example.entity.Book;
+import com.example.entity.Borrower;
+import com.example.entity.MembershipType;
+import com.example.repository.BookRepository;
+import com.example.repository.BorrowerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Races several returns of the same loan: exactly one may close it, release the copy and free the loan slot
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:borrowconcurrency;LOCK_TIMEOUT=10000",
+        "library.similarity.recompute-on-startup=false"
+})
+class BorrowServiceReturnConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+    private static final int RACERS = 8;
+
+    @Autowired
+    private BorrowService borrowService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowerRepository borrowerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentReturnsOfOneLoanCloseItOnce() throws Exception {
+        Book book = new Book();
+        book.setTitle("Double Return " + UUID.randomUUID());
+        book.setAuthor("Test Author");
+        book.setCategory("Fiction");
+        book.setTotalCopies(1);
+        book.setAvailableCopies(1);
+        UUID bookId = bookRepository.save(book).getId();
+
+        Borrower borrower = new Borrower();
+        borrower.setName("Double Returner");
+        borrower.setEmail("double-return-" + UUID.randomUUID() + "@example.com");
+        borrower.setMembershipType(MembershipType.BASIC);
+        UUID borrowerId = borrowerRepository.save(borrower).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(RACERS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                borrowService.borrowBook(new BorrowRequestDTO(bookId, borrowerId));
+
+                ReturnRequestDTO request = new ReturnRequestDTO();
+                request.setBookId(bookId);
+                request.setBorrowerId(borrowerId);
+
+                AtomicInteger returned = new AtomicInteger();
+                AtomicInteger refused = new AtomicInteger();
+                ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+                CountDownLatch start = new CountDownLatch(1);
+                CountDownLatch done = new CountDownLatch(RACERS);
+                for (int i = 0; i < RACERS; i++) {
+                    executor.submit(() -> {
+                        try {
+                            start.await();
+                            borrowService.returnBook(request);
+                            returned.incrementAndGet();
+                        } catch (IllegalStateException ex) {
+                            refused.incrementAndGet();
+                        } catch (Throwable ex) {
+                            unexpected.add(ex);
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                start.countDown();
+                assertThat(done.await(1, TimeUnit.MINUTES)).isTrue();
+
+                assertThat(unexpected).isEmpty();
+                assertThat(returned.get()).isEqualTo(1);
+                assertThat(refused.get()).isEqualTo(RACERS - 1);
+
+                // One copy back, one loan slot freed, whatever the interleaving
+                assertThat(jdbcTemplate.queryForObject(
+                        "SELECT available_copies FROM books WHERE id = ?", Integer.class, bookId)).isEqualTo(1);
+                assertThat(jdbcTemplate.queryForObject(
+                        "SELECT active_loan_count FROM borrowers WHERE id = ?", Integer.class, borrowerId)).isZero();
+                assertThat(jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM borrow_records WHERE book_id = ? AND active = TRUE",
+                        Integer.class, bookId)).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}